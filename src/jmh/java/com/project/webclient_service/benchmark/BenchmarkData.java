@@ -0,0 +1,58 @@
+package com.project.webclient_service.benchmark;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+// Deterministic tasks and users shared by the benchmarks. Task ids run from 1 to the task count and
+// are spread round robin over user ids 1 to the user count.
+final class BenchmarkData {
+
+    private static final LocalDateTime FIRST_DUE_DATE = LocalDateTime.of(2026, 1, 1, 9, 0);
+
+    private BenchmarkData() {
+    }
+
+    static List<TaskResponseDTO> tasks(int count, int users) {
+        List<TaskResponseDTO> tasks = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            tasks.add(task(id, users));
+        }
+        return tasks;
+    }
+
+    static TaskResponseDTO task(long id, int users) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskTitle("Task " + id);
+        task.setTaskDescription("Description of task " + id + " with enough text to resemble a real payload");
+        task.setTaskDueDate(FIRST_DUE_DATE.plusHours(id % 10_000));
+        task.setUserId(id % users + 1);
+        return task;
+    }
+
+    static List<UserResponseDTO> users(int count, int tasks) {
+        List<UserResponseDTO> users = new ArrayList<>(count);
+        for (long id = 1; id <= count; id++) {
+            Set<Long> taskIds = new HashSet<>();
+            for (long taskId = id - 1; taskId <= tasks; taskId += count) {
+                if (taskId > 0) {
+                    taskIds.add(taskId);
+                }
+            }
+            UserResponseDTO user = new UserResponseDTO();
+            user.setUserId(id);
+            user.setFullName("User " + id);
+            user.setUserEmail("user" + id + "@example.com");
+            user.setRole(id % 10 == 0 ? "ADMIN" : "USER");
+            user.setTaskIds(taskIds);
+            users.add(user);
+        }
+        return users;
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.webclient_service.benchmark;
+
+import com.project.webclient_service.cache.EntityCache;
+import com.project.webclient_service.cache.ReadMode;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Task cache operations from several threads at once, with the production size bound and a
+// cache that is already full, so puts also run the eviction policy
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+@Threads(4)
+public class EntityCacheBenchmark {
+
+    private static final int MAXIMUM_SIZE = 50_000;
+    // Ids beyond the bound, so reads also miss and writes evict
+    private static final int ID_SPACE = 2 * MAXIMUM_SIZE;
+
+    private EntityCache<TaskResponseDTO> cache;
+    private TaskResponseDTO[] tasks;
+
+    @State(Scope.Thread)
+    public static class Ids {
+        private final SplittableRandom random = new SplittableRandom();
+
+        int next() {
+            return random.nextInt(ID_SPACE);
+        }
+    }
+
+    @Setup
+    public void setUp() {
+        cache = new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, MAXIMUM_SIZE, Duration.ofMinutes(30),
+                ReadMode.CACHE_FIRST, Duration.ofMinutes(1));
+        List<TaskResponseDTO> all = BenchmarkData.tasks(ID_SPACE, 1_000);
+        tasks = all.toArray(new TaskResponseDTO[0]);
+        cache.putAll(all.subList(0, MAXIMUM_SIZE));
+    }
+
+    @Benchmark
+    public TaskResponseDTO get(Ids ids) {
+        return cache.get(tasks[ids.next()].getTaskId());
+    }
+
+    @Benchmark
+    public TaskResponseDTO getIfFresh(Ids ids) {
+        return cache.getIfFresh(tasks[ids.next()].getTaskId());
+    }
+
+    @Benchmark
+    public void put(Ids ids) {
+        cache.put(tasks[ids.next()]);
+    }
+
+    // Cache-first read as the services issue it, misses complete empty instead of calling a backend
+    @Benchmark
+    public TaskResponseDTO cacheFirstRead(Ids ids) {
+        return cache.read(tasks[ids.next()].getTaskId(), Mono::empty).block();
+    }
+
+    // Circuit breaker fallback for the listing, a single task falls back to get, copies every cached task
+    @Benchmark
+    @BenchmarkMode(Mode.AverageTime)
+    public int fallbackAll() {
+        return cache.values().size();
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(3)
+    public TaskResponseDTO readWhileWriting(Ids ids) {
+        return cache.get(tasks[ids.next()].getTaskId());
+    }
+
+    @Benchmark
+    @Group("readWrite")
+    @GroupThreads(1)
+    public void writeWhileReading(Ids ids) {
+        cache.put(tasks[ids.next()]);
+    }
+}
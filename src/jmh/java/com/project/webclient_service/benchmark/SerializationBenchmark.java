@@ -0,0 +1,71 @@
+package com.project.webclient_service.benchmark;
+
+import com.fasterxml.jackson.databind.JavaType;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.module.blackbird.BlackbirdModule;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+// Jackson cost of the task listing the task manager returns, at the sizes seen from small to bulk accounts.
+// json is the former reflective mapper, json-blackbird and smile the codecs configured in CodecConfig. The
+// encoded size of each listing, the bytes on the wire, is printed during setup.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgs = {"-Xms4g", "-Xmx4g"})
+public class SerializationBenchmark {
+
+    @Param({"1000", "100000", "1000000"})
+    private int size;
+
+    @Param({"json", "json-blackbird", "smile"})
+    private String codec;
+
+    private ObjectMapper objectMapper;
+    private JavaType taskListType;
+    private List<TaskResponseDTO> tasks;
+    private byte[] payload;
+
+    @Setup
+    public void setUp() throws IOException {
+        // Same settings as the mapper Spring Boot configures for WebClient and the controllers
+        Jackson2ObjectMapperBuilder builder = "smile".equals(codec) ? Jackson2ObjectMapperBuilder.smile() : Jackson2ObjectMapperBuilder.json();
+        builder.featuresToDisable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+        if (!"json".equals(codec)) {
+            builder.modulesToInstall(new BlackbirdModule());
+        }
+        objectMapper = builder.build();
+        taskListType = objectMapper.getTypeFactory().constructCollectionType(List.class, TaskResponseDTO.class);
+        tasks = BenchmarkData.tasks(size, Math.max(1, size / 20));
+        payload = objectMapper.writeValueAsBytes(tasks);
+        System.out.printf("%n%s listing of %d tasks: %d bytes%n", codec, size, payload.length);
+    }
+
+    @Benchmark
+    public byte[] serializeTasks() throws IOException {
+        return objectMapper.writeValueAsBytes(tasks);
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> deserializeTasks() throws IOException {
+        return objectMapper.readValue(payload, taskListType);
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.webclient_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.webclient_service.WebclientServiceApplication;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import com.project.webclient_service.service.TaskService;
+import com.project.webclient_service.service.UserService;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.util.List;
+import java.util.SplittableRandom;
+import java.util.concurrent.TimeUnit;
+
+// Service calls through the full Spring context, WebClient, resilience stack and caches against an
+// in-process task manager. network-first measures the upstream path, cache-first the cached path.
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 5)
+@Measurement(iterations = 5, time = 5)
+@Fork(1)
+@Threads(8)
+public class ServiceBenchmark {
+
+    private static final int TASKS = 1_000;
+    private static final int USERS = 100;
+
+    @Param({"network-first", "cache-first"})
+    private String readMode;
+
+    private StubTaskManager taskManager;
+    private ConfigurableApplicationContext context;
+    private TaskService taskService;
+    private UserService userService;
+
+    @State(Scope.Thread)
+    public static class Ids {
+        private final SplittableRandom random = new SplittableRandom();
+
+        long task() {
+            return random.nextInt(TASKS) + 1;
+        }
+
+        long user() {
+            return random.nextInt(USERS) + 1;
+        }
+    }
+
+    @Setup(Level.Trial)
+    public void setUp() throws IOException {
+        taskManager = new StubTaskManager(new ObjectMapper().findAndRegisterModules(), TASKS, USERS);
+        context = new SpringApplicationBuilder(WebclientServiceApplication.class)
+                .properties(
+                        "server.port=0",
+                        "main.url=" + taskManager.baseUrl(),
+                        "cache.tasks.read-mode=" + readMode,
+                        "cache.users.read-mode=" + readMode,
+                        "cache.snapshot.enabled=false",
+                        "cache.warm-up.enabled=false",
+                        "logging.level.root=WARN")
+                .run();
+        taskService = context.getBean(TaskService.class);
+        userService = context.getBean(UserService.class);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        context.close();
+        taskManager.close();
+    }
+
+    @Benchmark
+    public TaskResponseDTO getTaskById(Ids ids) {
+        return taskService.getTaskById(ids.task()).block();
+    }
+
+    @Benchmark
+    public UserResponseDTO getUserById(Ids ids) {
+        return userService.getUserById(ids.user()).block();
+    }
+
+    @Benchmark
+    public List<TaskResponseDTO> getAllTasks() {
+        return taskService.getAllTasks().block();
+    }
+}
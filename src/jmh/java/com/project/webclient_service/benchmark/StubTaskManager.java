@@ -0,0 +1,76 @@
+package com.project.webclient_service.benchmark;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.util.List;
+
+// In-process task manager answering the read endpoints from pre-serialized payloads, so the
+// benchmarks measure this service and not the backend
+final class StubTaskManager implements AutoCloseable {
+
+    private final byte[] allTasks;
+    private final byte[][] tasksById;
+    private final byte[] allUsers;
+    private final byte[][] usersById;
+    private final DisposableServer server;
+
+    StubTaskManager(ObjectMapper objectMapper, int taskCount, int userCount) throws IOException {
+        List<TaskResponseDTO> tasks = BenchmarkData.tasks(taskCount, userCount);
+        List<UserResponseDTO> users = BenchmarkData.users(userCount, taskCount);
+        allTasks = objectMapper.writeValueAsBytes(tasks);
+        allUsers = objectMapper.writeValueAsBytes(users);
+        tasksById = new byte[taskCount + 1][];
+        for (TaskResponseDTO task : tasks) {
+            tasksById[task.getTaskId().intValue()] = objectMapper.writeValueAsBytes(task);
+        }
+        usersById = new byte[userCount + 1][];
+        for (UserResponseDTO user : users) {
+            usersById[user.getUserId().intValue()] = objectMapper.writeValueAsBytes(user);
+        }
+
+        server = HttpServer.create()
+                .host("localhost")
+                .port(0)
+                .route(routes -> routes
+                        .get("/task-api/list-tasks", (request, response) -> json(response, allTasks))
+                        .get("/task-api/list-task", (request, response) -> json(response, byId(tasksById, request, "taskId")))
+                        .get("/user-api/list-users", (request, response) -> json(response, allUsers))
+                        .get("/user-api/list-user", (request, response) -> json(response, byId(usersById, request, "userId"))))
+                .bindNow();
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    private static byte[] byId(byte[][] payloads, HttpServerRequest request, String parameter) {
+        List<String> values = new QueryStringDecoder(request.uri()).parameters().get(parameter);
+        int id = values == null ? -1 : Integer.parseInt(values.get(0));
+        return id > 0 && id < payloads.length ? payloads[id] : null;
+    }
+
+    private static Mono<Void> json(HttpServerResponse response, byte[] payload) {
+        if (payload == null) {
+            return response.status(HttpResponseStatus.NOT_FOUND).send();
+        }
+        return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                .sendByteArray(Mono.just(payload))
+                .then();
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
@@ -0,0 +1,56 @@
+package com.project.webclient_service.loadtest;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+
+// Reads meters of the service under test from /actuator/metrics, so the harness works the same for an
+// in-process and an external service. Meters that were never registered read as 0.
+final class ActuatorMetrics {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final HttpClient httpClient;
+
+    ActuatorMetrics(String baseUrl) {
+        this.httpClient = HttpClient.create()
+                .baseUrl(baseUrl)
+                .responseTimeout(Duration.ofSeconds(5));
+    }
+
+    // COUNT or VALUE measurement of the meter, summed by the actuator over the series matching the tags,
+    // which are given as name:value
+    double value(String meter, String... tags) {
+        StringBuilder uri = new StringBuilder("/actuator/metrics/").append(meter);
+        for (int i = 0; i < tags.length; i++) {
+            uri.append(i == 0 ? '?' : '&').append("tag=").append(tags[i]);
+        }
+
+        return httpClient.get()
+                .uri(uri.toString())
+                .responseSingle((response, body) -> response.status().code() == 200
+                        ? body.asByteArray().map(this::measurement)
+                        : Mono.just(0.0))
+                .onErrorReturn(0.0)
+                .blockOptional()
+                .orElse(0.0);
+    }
+
+    private double measurement(byte[] body) {
+        try {
+            for (JsonNode measurement : objectMapper.readTree(body).path("measurements")) {
+                String statistic = measurement.path("statistic").asText();
+                if ("COUNT".equals(statistic) || "VALUE".equals(statistic)) {
+                    return measurement.path("value").asDouble();
+                }
+            }
+            return 0;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
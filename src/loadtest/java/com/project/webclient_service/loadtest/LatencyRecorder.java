@@ -0,0 +1,65 @@
+package com.project.webclient_service.loadtest;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+// Keeps every latency sample of one operation, so percentiles are exact instead of bucketed, and
+// counts the responses by status. A status of 0 stands for a request that got no response.
+final class LatencyRecorder {
+
+    private final String operation;
+    private final Map<Integer, Long> statuses = new ConcurrentHashMap<>();
+    // Response classes 1xx to 5xx by index, plus index 0 for transport errors
+    private final AtomicLongArray statusClasses = new AtomicLongArray(6);
+    private long[] samples = new long[4096];
+    private int count;
+
+    LatencyRecorder(String operation) {
+        this.operation = operation;
+    }
+
+    String operation() {
+        return operation;
+    }
+
+    void record(long latencyNanos, int status) {
+        synchronized (this) {
+            if (count == samples.length) {
+                samples = Arrays.copyOf(samples, count * 2);
+            }
+            samples[count++] = latencyNanos;
+        }
+        statuses.merge(status, 1L, Long::sum);
+        statusClasses.incrementAndGet(status / 100);
+    }
+
+    synchronized Snapshot snapshot() {
+        long[] sorted = Arrays.copyOf(samples, count);
+        Arrays.sort(sorted);
+        return new Snapshot(sorted, new TreeMap<>(statuses), statusClasses.get(2), statusClasses.get(0)
+                + statusClasses.get(5));
+    }
+
+    record Snapshot(long[] sortedNanos, Map<Integer, Long> statuses, long succeeded, long failed) {
+
+        long count() {
+            return sortedNanos.length;
+        }
+
+        // Nearest-rank percentile in milliseconds
+        double percentileMillis(double percentile) {
+            if (sortedNanos.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(percentile / 100 * sortedNanos.length);
+            return sortedNanos[Math.max(0, Math.min(sortedNanos.length - 1, rank - 1))] / 1_000_000.0;
+        }
+
+        double maxMillis() {
+            return sortedNanos.length == 0 ? 0 : sortedNanos[sortedNanos.length - 1] / 1_000_000.0;
+        }
+    }
+}
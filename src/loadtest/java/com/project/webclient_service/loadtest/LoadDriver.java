@@ -0,0 +1,408 @@
+package com.project.webclient_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.webclient_service.WebclientServiceApplication;
+import com.project.webclient_service.dto.TaskRequestDTO;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpMethod;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.context.ConfigurableApplicationContext;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.netty.ByteBufFlux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+// Closed-loop load test of the /web-client/* endpoints against MockTaskManager. Each of the concurrent
+// workers sends its next request as soon as the previous one completed, picking the operation by the
+// weights of the mix. After the warm-up, latencies are recorded per operation, the circuit breaker state
+// is sampled every second, and the report adds the breaker and fallback meters of the service.
+//
+// Arguments are key=value pairs, see DEFAULTS. Keys starting with app. are passed to the in-process
+// service without the prefix, e.g. app.cache.tasks.read-mode=cache-first. With target=<url> the driver
+// loads an already running service instead, which must be started with main.url pointing at the mock
+// (fix its port with mock.port).
+public final class LoadDriver {
+
+    private static final String CIRCUIT_BREAKER = "name:taskManagerService";
+    private static final String[] CACHES = {"taskCache", "userCache"};
+    private static final Map<String, String> DEFAULTS = Map.ofEntries(
+            Map.entry("duration", "60s"),
+            Map.entry("warm-up", "10s"),
+            Map.entry("concurrency", "64"),
+            Map.entry("timeout", "30s"),
+            Map.entry("target", ""),
+            Map.entry("mix", "get-task:40,get-user:15,get-tasks:10,get-users:5,get-tasks-by-user:10,"
+                    + "get-user-with-tasks:5,update-task:10,create-task:5"),
+            Map.entry("report", "target/loadtest-result.json"),
+            Map.entry("mock.port", "0"),
+            Map.entry("mock.tasks", "10000"),
+            Map.entry("mock.users", "500"),
+            Map.entry("mock.latency", "20ms"),
+            Map.entry("mock.jitter", "10ms"),
+            Map.entry("mock.error-rate", "0"),
+            Map.entry("mock.outage-after", "0s"),
+            Map.entry("mock.outage-for", "0s"),
+            Map.entry("mock.etags", "true"));
+
+    private final Map<String, String> settings;
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final List<String> operations = new ArrayList<>();
+    private final int[] cumulativeWeights;
+    private final int taskCount;
+    private final int userCount;
+    private final AtomicLong completed = new AtomicLong();
+    private final AtomicLong failed = new AtomicLong();
+    private HttpClient httpClient;
+
+    private LoadDriver(Map<String, String> settings) {
+        this.settings = settings;
+        this.taskCount = Integer.parseInt(settings.get("mock.tasks"));
+        this.userCount = Integer.parseInt(settings.get("mock.users"));
+
+        String[] entries = settings.get("mix").split(",");
+        cumulativeWeights = new int[entries.length];
+        int total = 0;
+        for (int i = 0; i < entries.length; i++) {
+            String[] entry = entries[i].trim().split(":");
+            operations.add(entry[0]);
+            total += Integer.parseInt(entry[1]);
+            cumulativeWeights[i] = total;
+        }
+    }
+
+    public static void main(String[] args) throws IOException {
+        Map<String, String> settings = new LinkedHashMap<>(DEFAULTS);
+        for (String arg : args) {
+            int separator = arg.indexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected key=value but got: " + arg);
+            }
+            settings.put(arg.substring(0, separator), arg.substring(separator + 1));
+        }
+        new LoadDriver(settings).run();
+    }
+
+    private void run() throws IOException {
+        MockTaskManager.Settings mockSettings = new MockTaskManager.Settings(
+                Integer.parseInt(settings.get("mock.port")),
+                taskCount,
+                userCount,
+                duration("mock.latency"),
+                duration("mock.jitter"),
+                Double.parseDouble(settings.get("mock.error-rate")),
+                duration("mock.outage-after"),
+                duration("mock.outage-for"),
+                Boolean.parseBoolean(settings.get("mock.etags")));
+
+        try (MockTaskManager taskManager = new MockTaskManager(mockSettings)) {
+            ConfigurableApplicationContext context = null;
+            String target = settings.get("target");
+            if (target.isEmpty()) {
+                context = startService(taskManager.baseUrl());
+                target = "http://localhost:" + context.getEnvironment().getProperty("local.server.port");
+            }
+
+            int concurrency = Integer.parseInt(settings.get("concurrency"));
+            ConnectionProvider connectionProvider = ConnectionProvider.builder("load-driver")
+                    .maxConnections(concurrency)
+                    .pendingAcquireMaxCount(-1)
+                    .build();
+            httpClient = HttpClient.create(connectionProvider)
+                    .baseUrl(target)
+                    .responseTimeout(duration("timeout"));
+            ActuatorMetrics metrics = new ActuatorMetrics(target);
+            try {
+                System.out.printf("Warming up %s for %s with %d workers%n", target, settings.get("warm-up"), concurrency);
+                drive(duration("warm-up"), concurrency, recorders());
+
+                Map<String, Double> before = resilienceMeters(metrics);
+                long upstreamBefore = taskManager.requests();
+                Map<String, LatencyRecorder> recorders = recorders();
+                BreakerSampler sampler = new BreakerSampler(metrics);
+                Duration duration = duration("duration");
+                System.out.printf("Measuring for %s%n", duration);
+
+                long start = System.nanoTime();
+                sampler.start();
+                drive(duration, concurrency, recorders);
+                sampler.stop();
+                double elapsedSeconds = (System.nanoTime() - start) / 1e9;
+
+                Map<String, Double> after = resilienceMeters(metrics);
+                report(recorders, elapsedSeconds, before, after, sampler, taskManager, taskManager.requests() - upstreamBefore);
+            } finally {
+                connectionProvider.disposeLater().block();
+                if (context != null) {
+                    context.close();
+                }
+            }
+        }
+    }
+
+    private ConfigurableApplicationContext startService(String taskManagerUrl) {
+        List<String> properties = new ArrayList<>(List.of(
+                "server.port=0",
+                "main.url=" + taskManagerUrl,
+                "cache.snapshot.enabled=false",
+                "logging.level.root=WARN"));
+        settings.forEach((key, value) -> {
+            if (key.startsWith("app.")) {
+                properties.add(key.substring("app.".length()) + "=" + value);
+            }
+        });
+        // Devtools would restart the driver's main method with the service's arguments
+        System.setProperty("spring.devtools.restart.enabled", "false");
+        // As command line arguments, default properties would lose to application.properties
+        return new SpringApplicationBuilder(WebclientServiceApplication.class)
+                .run(properties.stream().map(property -> "--" + property).toArray(String[]::new));
+    }
+
+    private Map<String, LatencyRecorder> recorders() {
+        Map<String, LatencyRecorder> recorders = new LinkedHashMap<>();
+        operations.forEach(operation -> recorders.put(operation, new LatencyRecorder(operation)));
+        return recorders;
+    }
+
+    private void drive(Duration duration, int concurrency, Map<String, LatencyRecorder> recorders) {
+        long end = System.nanoTime() + duration.toNanos();
+        Flux.range(0, concurrency)
+                .flatMap(worker -> Mono.defer(() -> callRandomOperation(recorders))
+                        .repeat(() -> System.nanoTime() - end < 0), concurrency)
+                .blockLast();
+    }
+
+    private Mono<Integer> callRandomOperation(Map<String, LatencyRecorder> recorders) {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int pick = random.nextInt(cumulativeWeights[cumulativeWeights.length - 1]);
+        int index = 0;
+        while (cumulativeWeights[index] <= pick) {
+            index++;
+        }
+        LatencyRecorder recorder = recorders.get(operations.get(index));
+        long start = System.nanoTime();
+        return call(recorder.operation(), random)
+                .onErrorReturn(0)
+                .doOnNext(status -> {
+                    recorder.record(System.nanoTime() - start, status);
+                    completed.incrementAndGet();
+                    if (status == 0 || status >= 500) {
+                        failed.incrementAndGet();
+                    }
+                });
+    }
+
+    private Mono<Integer> call(String operation, ThreadLocalRandom random) {
+        return switch (operation) {
+            case "get-task" -> send(HttpMethod.GET, "/web-client/get-task?id=" + taskId(random), null);
+            case "get-tasks" -> send(HttpMethod.GET, "/web-client/get-tasks", null);
+            case "get-tasks-by-user" -> send(HttpMethod.GET, "/web-client/get-tasks-by-user/" + userId(random), null);
+            case "get-user" -> send(HttpMethod.GET, "/web-client/get-user/" + userId(random), null);
+            case "get-users" -> send(HttpMethod.GET, "/web-client/get-users", null);
+            case "get-user-with-tasks" -> send(HttpMethod.GET, "/web-client/get-user-with-tasks/" + userId(random), null);
+            case "update-task" -> send(HttpMethod.PUT, "/web-client/update-task", task(taskId(random), random));
+            case "create-task" -> send(HttpMethod.POST, "/web-client/create-task", task(null, random));
+            default -> Mono.error(new IllegalArgumentException("Unknown operation: " + operation));
+        };
+    }
+
+    // Reads the whole body, so the latency covers the transfer and not only the headers
+    private Mono<Integer> send(HttpMethod method, String uri, Object body) {
+        HttpClient.RequestSender request = httpClient
+                .headers(headers -> headers.set(HttpHeaderNames.CONTENT_TYPE, "application/json"))
+                .request(method)
+                .uri(uri);
+        HttpClient.ResponseReceiver<?> receiver = body == null ? request : request.send(ByteBufFlux.fromString(Mono.just(json(body))));
+        return receiver.responseSingle((response, content) -> content.asByteArray()
+                .then(Mono.just(response.status().code())));
+    }
+
+    private long taskId(ThreadLocalRandom random) {
+        return random.nextLong(taskCount) + 1;
+    }
+
+    private long userId(ThreadLocalRandom random) {
+        return random.nextLong(userCount) + 1;
+    }
+
+    private TaskRequestDTO task(Long taskId, ThreadLocalRandom random) {
+        TaskRequestDTO task = new TaskRequestDTO();
+        task.setTaskId(taskId);
+        task.setTaskTitle("Load test task " + random.nextInt(1_000_000));
+        task.setTaskDescription("Written by the load driver");
+        task.setTaskDueDate(LocalDateTime.of(2026, 1, 1, 9, 0).plusHours(random.nextInt(10_000)));
+        task.setUserId(userId(random));
+        return task;
+    }
+
+    private String json(Object value) {
+        try {
+            return objectMapper.writeValueAsString(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static Map<String, Double> resilienceMeters(ActuatorMetrics metrics) {
+        Map<String, Double> meters = new LinkedHashMap<>();
+        meters.put("breaker.opened", metrics.value("webclient.circuitbreaker.transitions", CIRCUIT_BREAKER, "to:OPEN"));
+        meters.put("breaker.not-permitted", metrics.value("resilience4j.circuitbreaker.not.permitted.calls", CIRCUIT_BREAKER));
+        meters.put("limiter.rejected", metrics.value("webclient.upstream.concurrency.rejected"));
+        for (String cache : CACHES) {
+            meters.put(cache + ".fallback.hit", metrics.value("cache.fallbacks", "cache:" + cache, "result:hit"));
+            meters.put(cache + ".fallback.miss", metrics.value("cache.fallbacks", "cache:" + cache, "result:miss"));
+        }
+        return meters;
+    }
+
+    private void report(Map<String, LatencyRecorder> recorders, double elapsedSeconds, Map<String, Double> before,
+                        Map<String, Double> after, BreakerSampler sampler, MockTaskManager taskManager,
+                        long upstreamRequests) throws IOException {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("settings", settings);
+        result.put("elapsedSeconds", elapsedSeconds);
+
+        System.out.printf("%n%-22s %10s %10s %8s %9s %9s %9s %9s %9s %9s%n",
+                "operation", "requests", "req/s", "errors", "p50 ms", "p90 ms", "p99 ms", "p99.9 ms", "max ms", "statuses");
+        Map<String, Object> operationResults = new LinkedHashMap<>();
+        long total = 0;
+        long totalFailed = 0;
+        for (LatencyRecorder recorder : recorders.values()) {
+            LatencyRecorder.Snapshot snapshot = recorder.snapshot();
+            total += snapshot.count();
+            totalFailed += snapshot.failed();
+            System.out.printf("%-22s %10d %10.1f %8d %9.2f %9.2f %9.2f %9.2f %9.2f %s%n",
+                    recorder.operation(), snapshot.count(), snapshot.count() / elapsedSeconds, snapshot.failed(),
+                    snapshot.percentileMillis(50), snapshot.percentileMillis(90), snapshot.percentileMillis(99),
+                    snapshot.percentileMillis(99.9), snapshot.maxMillis(), snapshot.statuses());
+
+            Map<String, Object> operationResult = new LinkedHashMap<>();
+            operationResult.put("requests", snapshot.count());
+            operationResult.put("throughput", snapshot.count() / elapsedSeconds);
+            operationResult.put("succeeded", snapshot.succeeded());
+            operationResult.put("failed", snapshot.failed());
+            operationResult.put("statuses", snapshot.statuses());
+            operationResult.put("p50", snapshot.percentileMillis(50));
+            operationResult.put("p90", snapshot.percentileMillis(90));
+            operationResult.put("p99", snapshot.percentileMillis(99));
+            operationResult.put("p999", snapshot.percentileMillis(99.9));
+            operationResult.put("max", snapshot.maxMillis());
+            operationResults.put(recorder.operation(), operationResult);
+        }
+        result.put("operations", operationResults);
+        result.put("throughput", total / elapsedSeconds);
+        result.put("errorRate", total == 0 ? 0 : (double) totalFailed / total);
+        System.out.printf("%-22s %10d %10.1f %8d%n", "total", total, total / elapsedSeconds, totalFailed);
+
+        Map<String, Double> resilience = new LinkedHashMap<>();
+        after.forEach((meter, value) -> resilience.put(meter, value - before.get(meter)));
+        resilience.put("breaker.open-seconds", (double) sampler.openSeconds());
+        resilience.put("breaker.half-open-seconds", (double) sampler.halfOpenSeconds());
+        System.out.printf("%nCircuit breaker: opened %.0f times, open for %d s, half-open for %d s, %.0f calls not permitted%n",
+                resilience.get("breaker.opened"), sampler.openSeconds(), sampler.halfOpenSeconds(),
+                resilience.get("breaker.not-permitted"));
+        System.out.printf("Concurrency limiter: %.0f upstream calls rejected%n", resilience.get("limiter.rejected"));
+        for (String cache : CACHES) {
+            double hits = resilience.get(cache + ".fallback.hit");
+            double misses = resilience.get(cache + ".fallback.miss");
+            double hitRate = hits + misses == 0 ? 0 : hits / (hits + misses);
+            resilience.put(cache + ".fallback.hit-rate", hitRate);
+            System.out.printf("Fallbacks from %s: %.0f served, %.0f without data, hit rate %.1f%%%n", cache, hits, misses, hitRate * 100);
+        }
+        result.put("resilience", resilience);
+
+        Map<String, Long> upstream = new LinkedHashMap<>();
+        upstream.put("requests", upstreamRequests);
+        upstream.put("injectedErrors", taskManager.injectedErrors());
+        upstream.put("outageErrors", taskManager.outageErrors());
+        result.put("upstream", upstream);
+        System.out.printf("Mock task manager: %d requests during the measurement (%.2f per client request), %d injected errors, %d outage errors%n",
+                upstreamRequests, total == 0 ? 0 : (double) upstreamRequests / total, taskManager.injectedErrors(), taskManager.outageErrors());
+
+        File report = new File(settings.get("report"));
+        if (report.getParentFile() != null) {
+            report.getParentFile().mkdirs();
+        }
+        objectMapper.writerWithDefaultPrettyPrinter().writeValue(report, result);
+        System.out.printf("Report written to %s%n", report.getPath());
+    }
+
+    private Duration duration(String key) {
+        return DurationStyle.detectAndParse(settings.get(key));
+    }
+
+    // Samples the circuit breaker state once per second and prints the progress of the run, so the
+    // transitions can be lined up with the outage window of the mock
+    private final class BreakerSampler {
+
+        private final ActuatorMetrics metrics;
+        private final ScheduledExecutorService executor = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "breaker-sampler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        private final AtomicLong openSeconds = new AtomicLong();
+        private final AtomicLong halfOpenSeconds = new AtomicLong();
+        private long lastCompleted;
+        private long lastFailed;
+        private int second;
+
+        private BreakerSampler(ActuatorMetrics metrics) {
+            this.metrics = metrics;
+        }
+
+        void start() {
+            lastCompleted = completed.get();
+            lastFailed = failed.get();
+            executor.scheduleAtFixedRate(this::sample, 1, 1, TimeUnit.SECONDS);
+        }
+
+        private void sample() {
+            String state = "closed";
+            if (metrics.value("resilience4j.circuitbreaker.state", CIRCUIT_BREAKER, "state:open") > 0) {
+                openSeconds.incrementAndGet();
+                state = "open";
+            } else if (metrics.value("resilience4j.circuitbreaker.state", CIRCUIT_BREAKER, "state:half_open") > 0) {
+                halfOpenSeconds.incrementAndGet();
+                state = "half-open";
+            }
+            long currentCompleted = completed.get();
+            long currentFailed = failed.get();
+            System.out.printf("%4d s %8d req/s %6d errors/s  breaker %s%n",
+                    ++second, currentCompleted - lastCompleted, currentFailed - lastFailed, state);
+            lastCompleted = currentCompleted;
+            lastFailed = currentFailed;
+        }
+
+        void stop() {
+            executor.shutdownNow();
+        }
+
+        long openSeconds() {
+            return openSeconds.get();
+        }
+
+        long halfOpenSeconds() {
+            return halfOpenSeconds.get();
+        }
+    }
+}
@@ -0,0 +1,351 @@
+package com.project.webclient_service.loadtest;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.project.webclient_service.dto.TaskRequestDTO;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserRequestDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import io.netty.handler.codec.http.HttpHeaderNames;
+import io.netty.handler.codec.http.HttpResponseStatus;
+import io.netty.handler.codec.http.QueryStringDecoder;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.http.server.HttpServerRequest;
+import reactor.netty.http.server.HttpServerResponse;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+// In-memory task manager implementing /task-api/* and /user-api/* as this service calls them. Every
+// call is delayed by the configured latency plus a uniform jitter, fails with 500 at the configured
+// error rate, and fails with 503 for the whole outage window, so brownouts and outages can be replayed.
+// With ETags enabled the listings carry a version ETag and answer a matching If-None-Match with 304.
+// The change feeds and digests used by delta synchronization are served from per-entity versions.
+@Slf4j
+final class MockTaskManager implements AutoCloseable {
+
+    private static final LocalDateTime FIRST_DUE_DATE = LocalDateTime.of(2026, 1, 1, 9, 0);
+    private static final Object NOT_MODIFIED = new Object();
+
+    private final ObjectMapper objectMapper = new ObjectMapper()
+            .findAndRegisterModules()
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS);
+    private final Map<Long, TaskResponseDTO> tasks = new ConcurrentHashMap<>();
+    private final Map<Long, UserResponseDTO> users = new ConcurrentHashMap<>();
+    private final AtomicLong nextTaskId;
+    private final AtomicLong nextUserId;
+    private final ChangeLog taskChanges = new ChangeLog();
+    private final ChangeLog userChanges = new ChangeLog();
+    private final Settings settings;
+    private final long startNanos = System.nanoTime();
+    private final AtomicLong requests = new AtomicLong();
+    private final AtomicLong injectedErrors = new AtomicLong();
+    private final AtomicLong outageErrors = new AtomicLong();
+    private final DisposableServer server;
+
+    // Latency is added to every call, jitter is the upper bound of a uniform extra delay. The outage
+    // starts outageAfter the mock started and lasts outageFor, a zero outageFor disables it.
+    record Settings(int port, int taskCount, int userCount, Duration latency, Duration jitter, double errorRate,
+                    Duration outageAfter, Duration outageFor, boolean etags) {
+    }
+
+    MockTaskManager(Settings settings) {
+        this.settings = settings;
+        for (long id = 1; id <= settings.taskCount(); id++) {
+            tasks.put(id, task(id, settings.userCount()));
+        }
+        for (long id = 1; id <= settings.userCount(); id++) {
+            users.put(id, user(id, settings.userCount(), settings.taskCount()));
+        }
+        nextTaskId = new AtomicLong(settings.taskCount());
+        nextUserId = new AtomicLong(settings.userCount());
+
+        server = HttpServer.create()
+                .host("localhost")
+                .port(settings.port())
+                .route(routes -> routes
+                        .get("/task-api/list-tasks", (request, response) -> respond(response, () -> listing(request, response, taskChanges, tasks)))
+                        .get("/task-api/list-task-changes", (request, response) -> respond(response, () -> changes(request, taskChanges, tasks)))
+                        .get("/task-api/list-task-digests", (request, response) -> respond(response, () -> digests(taskChanges, tasks)))
+                        .get("/task-api/list-task", (request, response) -> respond(response, () -> tasks.get(queryId(request, "taskId"))))
+                        .post("/task-api/create-task", (request, response) -> respond(request, response, TaskRequestDTO.class, this::createTask))
+                        .put("/task-api/update-task", (request, response) -> respond(request, response, TaskRequestDTO.class, this::updateTask))
+                        .delete("/task-api/delete-task", (request, response) -> respond(response, () -> deleted(tasks, queryId(request, "taskId"), taskChanges)))
+                        .get("/user-api/list-users", (request, response) -> respond(response, () -> listing(request, response, userChanges, users)))
+                        .get("/user-api/list-user-changes", (request, response) -> respond(response, () -> changes(request, userChanges, users)))
+                        .get("/user-api/list-user-digests", (request, response) -> respond(response, () -> digests(userChanges, users)))
+                        .get("/user-api/list-user", (request, response) -> respond(response, () -> users.get(queryId(request, "userId"))))
+                        .post("/user-api/create-user", (request, response) -> respond(request, response, UserRequestDTO.class, this::createUser))
+                        .put("/user-api/update-user", (request, response) -> respond(request, response, UserRequestDTO.class, this::updateUser))
+                        .delete("/user-api/delete-user/{id}", (request, response) -> respond(response, () -> deleted(users, pathId(request), userChanges))))
+                .bindNow();
+        log.info("Mock task manager listening on {} with {} tasks and {} users", baseUrl(), tasks.size(), users.size());
+    }
+
+    String baseUrl() {
+        return "http://localhost:" + server.port();
+    }
+
+    long requests() {
+        return requests.get();
+    }
+
+    long injectedErrors() {
+        return injectedErrors.get();
+    }
+
+    long outageErrors() {
+        return outageErrors.get();
+    }
+
+    private TaskResponseDTO createTask(TaskRequestDTO request) {
+        TaskResponseDTO task = toTask(nextTaskId.incrementAndGet(), request);
+        tasks.put(task.getTaskId(), task);
+        taskChanges.written(task.getTaskId());
+        return task;
+    }
+
+    private TaskResponseDTO updateTask(TaskRequestDTO request) {
+        if (request.getTaskId() == null || !tasks.containsKey(request.getTaskId())) {
+            return null;
+        }
+        TaskResponseDTO task = toTask(request.getTaskId(), request);
+        tasks.put(task.getTaskId(), task);
+        taskChanges.written(task.getTaskId());
+        return task;
+    }
+
+    private UserResponseDTO createUser(UserRequestDTO request) {
+        UserResponseDTO user = toUser(nextUserId.incrementAndGet(), request);
+        users.put(user.getUserId(), user);
+        userChanges.written(user.getUserId());
+        return user;
+    }
+
+    private UserResponseDTO updateUser(UserRequestDTO request) {
+        if (request.getUserId() == null || !users.containsKey(request.getUserId())) {
+            return null;
+        }
+        UserResponseDTO user = toUser(request.getUserId(), request);
+        users.put(user.getUserId(), user);
+        userChanges.written(user.getUserId());
+        return user;
+    }
+
+    private static Object deleted(Map<Long, ?> entities, Long id, ChangeLog changeLog) {
+        if (entities.remove(id) == null) {
+            return null;
+        }
+        changeLog.deleted(id);
+        return Map.of();
+    }
+
+    // The version is read before the copy, so a concurrent write can only make the ETag older than the body
+    private Object listing(HttpServerRequest request, HttpServerResponse response, ChangeLog changeLog, Map<Long, ?> entities) {
+        if (!settings.etags()) {
+            return List.copyOf(entities.values());
+        }
+        String etag = "\"" + changeLog.version() + "\"";
+        response.header(HttpHeaderNames.ETAG, etag);
+        if (etag.equals(request.requestHeaders().get(HttpHeaderNames.IF_NONE_MATCH))) {
+            return NOT_MODIFIED;
+        }
+        return List.copyOf(entities.values());
+    }
+
+    // Entities written and deleted after the since watermark, all entities without one. The watermark is
+    // read first, so a concurrent write is sent again with the next changes rather than lost.
+    private static Object changes(HttpServerRequest request, ChangeLog changeLog, Map<Long, ?> entities) {
+        long watermark = changeLog.version();
+        List<String> since = new QueryStringDecoder(request.uri()).parameters().get("since");
+        if (since == null) {
+            return Map.of("changed", List.copyOf(entities.values()), "deletedIds", List.of(),
+                    "watermark", String.valueOf(watermark));
+        }
+        long sinceVersion = Long.parseLong(since.get(0));
+        List<?> changed = entities.entrySet().stream()
+                .filter(entry -> changeLog.versionOf(entry.getKey()) > sinceVersion)
+                .map(Map.Entry::getValue)
+                .toList();
+        return Map.of("changed", changed, "deletedIds", changeLog.deletedSince(sinceVersion),
+                "watermark", String.valueOf(watermark));
+    }
+
+    private static Object digests(ChangeLog changeLog, Map<Long, ?> entities) {
+        return entities.keySet().stream()
+                .map(id -> Map.of("id", id, "version", String.valueOf(changeLog.versionOf(id))))
+                .toList();
+    }
+
+    private <T> Mono<Void> respond(HttpServerRequest request, HttpServerResponse response, Class<T> type, Function<T, Object> handler) {
+        return request.receive().aggregate().asByteArray()
+                .flatMap(body -> respond(response, () -> handler.apply(read(body, type))));
+    }
+
+    // A null result answers 404, like the task manager does for unknown ids
+    private Mono<Void> respond(HttpServerResponse response, Supplier<Object> handler) {
+        requests.incrementAndGet();
+        return Mono.delay(delay()).then(Mono.defer(() -> {
+            if (inOutage()) {
+                outageErrors.incrementAndGet();
+                return response.status(HttpResponseStatus.SERVICE_UNAVAILABLE).send().then();
+            }
+            if (settings.errorRate() > 0 && ThreadLocalRandom.current().nextDouble() < settings.errorRate()) {
+                injectedErrors.incrementAndGet();
+                return response.status(HttpResponseStatus.INTERNAL_SERVER_ERROR).send().then();
+            }
+            Object result = handler.get();
+            if (result == null) {
+                return response.status(HttpResponseStatus.NOT_FOUND).send().then();
+            }
+            if (result == NOT_MODIFIED) {
+                return response.status(HttpResponseStatus.NOT_MODIFIED).send().then();
+            }
+            return response.header(HttpHeaderNames.CONTENT_TYPE, "application/json")
+                    .sendByteArray(Mono.just(write(result)))
+                    .then();
+        }));
+    }
+
+    private Duration delay() {
+        long jitterNanos = settings.jitter().toNanos();
+        long extraNanos = jitterNanos > 0 ? ThreadLocalRandom.current().nextLong(jitterNanos) : 0;
+        return settings.latency().plusNanos(extraNanos);
+    }
+
+    private boolean inOutage() {
+        if (settings.outageFor().isZero()) {
+            return false;
+        }
+        long elapsed = System.nanoTime() - startNanos;
+        long outageStart = settings.outageAfter().toNanos();
+        return elapsed >= outageStart && elapsed < outageStart + settings.outageFor().toNanos();
+    }
+
+    private static Long queryId(HttpServerRequest request, String parameter) {
+        List<String> values = new QueryStringDecoder(request.uri()).parameters().get(parameter);
+        return values == null ? -1L : Long.valueOf(values.get(0));
+    }
+
+    private static Long pathId(HttpServerRequest request) {
+        return Long.valueOf(request.param("id"));
+    }
+
+    private <T> T read(byte[] body, Class<T> type) {
+        try {
+            return objectMapper.readValue(body, type);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private byte[] write(Object value) {
+        try {
+            return objectMapper.writeValueAsBytes(value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+
+    private static TaskResponseDTO task(long id, int userCount) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskTitle("Task " + id);
+        task.setTaskDescription("Description of task " + id + " with enough text to resemble a real payload");
+        task.setTaskDueDate(FIRST_DUE_DATE.plusHours(id % 10_000));
+        task.setUserId(id % userCount + 1);
+        return task;
+    }
+
+    // Tasks are spread round robin over the users, matching task(id, userCount)
+    private static UserResponseDTO user(long id, int userCount, int taskCount) {
+        Set<Long> taskIds = new HashSet<>();
+        for (long taskId = id - 1; taskId <= taskCount; taskId += userCount) {
+            if (taskId > 0) {
+                taskIds.add(taskId);
+            }
+        }
+        UserResponseDTO user = new UserResponseDTO();
+        user.setUserId(id);
+        user.setFullName("User " + id);
+        user.setUserEmail("user" + id + "@example.com");
+        user.setRole(id % 10 == 0 ? "ADMIN" : "USER");
+        user.setTaskIds(taskIds);
+        return user;
+    }
+
+    private static TaskResponseDTO toTask(Long id, TaskRequestDTO request) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskTitle(request.getTaskTitle());
+        task.setTaskDescription(request.getTaskDescription());
+        task.setTaskDueDate(request.getTaskDueDate());
+        task.setUserId(request.getUserId());
+        return task;
+    }
+
+    private static UserResponseDTO toUser(Long id, UserRequestDTO request) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setUserId(id);
+        user.setFullName(request.getFullName());
+        user.setUserEmail(request.getUserEmail());
+        user.setRole(request.getRole());
+        user.setTaskIds(request.getTaskIds() == null ? Set.of() : request.getTaskIds());
+        return user;
+    }
+
+    // Version of the last write per entity and of every deletion, the seeded entities are at version 0.
+    // The current version is the ETag of the listing and the watermark of the change feed.
+    private static final class ChangeLog {
+
+        private final AtomicLong version = new AtomicLong();
+        private final Map<Long, Long> written = new ConcurrentHashMap<>();
+        private final Map<Long, Long> deleted = new ConcurrentHashMap<>();
+
+        long version() {
+            return version.get();
+        }
+
+        long versionOf(Long id) {
+            return written.getOrDefault(id, 0L);
+        }
+
+        void written(Long id) {
+            long current = version.incrementAndGet();
+            deleted.remove(id);
+            written.put(id, current);
+        }
+
+        void deleted(Long id) {
+            long current = version.incrementAndGet();
+            written.remove(id);
+            deleted.put(id, current);
+        }
+
+        List<Long> deletedSince(long since) {
+            return deleted.entrySet().stream()
+                    .filter(entry -> entry.getValue() > since)
+                    .map(Map.Entry::getKey)
+                    .toList();
+        }
+    }
+
+    @Override
+    public void close() {
+        server.disposeNow();
+    }
+}
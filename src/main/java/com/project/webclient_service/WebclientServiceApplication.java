@@ -2,8 +2,10 @@ package com.project.webclient_service;
 
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
+import org.springframework.scheduling.annotation.EnableScheduling;
 
 @SpringBootApplication
+@EnableScheduling
 public class WebclientServiceApplication {
 
 	public static void main(String[] args) {SpringApplication.run(WebclientServiceApplication.class, args);}
@@ -0,0 +1,174 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Objects;
+import java.util.Set;
+import java.util.function.Consumer;
+
+// Keeps taskCache and userCache consistent with successful mutations, including the link between a
+// task's userId and the owning user's taskIds. In write-through mode both sides are updated in place,
+// in invalidate mode every affected entry is dropped and fetched again on the next read. Changes are
+// published to the shared tier so the other replicas drop their local copies. The delta sync replicas
+// are synchronized again on the next listing, so writes are listed right away.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CacheCoherence {
+
+    private final EntityCache<TaskResponseDTO> taskCache;
+    private final EntityCache<UserResponseDTO> userCache;
+    private final TaskIndex taskIndex;
+    private final TaskOwnerIndex taskOwnerIndex;
+    private final TieredCache<TaskResponseDTO> sharedTaskCache;
+    private final TieredCache<UserResponseDTO> sharedUserCache;
+    private final EntityReplica<TaskResponseDTO> taskReplica;
+    private final EntityReplica<UserResponseDTO> userReplica;
+
+    @Value("${cache.write-mode}")
+    private WriteMode writeMode;
+
+    public void taskWritten(TaskResponseDTO task) {
+        Long taskId = task.getTaskId();
+        if (taskId == null) {
+            return;
+        }
+
+        Set<Long> previousUserIds = previousOwnersOf(taskId);
+        if (writeMode == WriteMode.WRITE_THROUGH) {
+            taskCache.put(task);
+            sharedTaskCache.publishWrite(task);
+        } else {
+            invalidateTask(taskId);
+        }
+        relinkTask(taskId, previousUserIds, task.getUserId());
+        expireReplicas();
+        log.debug("Applied {} for task with ID: {}", writeMode, taskId);
+    }
+
+    public void taskDeleted(Long taskId) {
+        Set<Long> previousUserIds = previousOwnersOf(taskId);
+        taskCache.evict(taskId);
+        sharedTaskCache.publishInvalidation(taskId);
+        relinkTask(taskId, previousUserIds, null);
+        expireReplicas();
+        log.debug("Evicted deleted task with ID: {}", taskId);
+    }
+
+    public void userWritten(UserResponseDTO user) {
+        Long userId = user.getUserId();
+        if (userId == null) {
+            return;
+        }
+
+        Set<Long> previousTaskIds = previousTasksOf(userId);
+        Set<Long> currentTaskIds = user.getTaskIds() == null ? Set.of() : user.getTaskIds();
+        if (writeMode == WriteMode.WRITE_THROUGH) {
+            userCache.put(user);
+            sharedUserCache.publishWrite(user);
+        } else {
+            invalidateUser(userId);
+        }
+
+        // A task's userId is owned by the task manager, so tasks whose assignment changed are dropped
+        previousTaskIds.stream()
+                .filter(taskId -> !currentTaskIds.contains(taskId))
+                .forEach(this::invalidateTask);
+        currentTaskIds.stream()
+                .filter(taskId -> {
+                    TaskResponseDTO cachedTask = taskCache.peek(taskId);
+                    return cachedTask != null && !userId.equals(cachedTask.getUserId());
+                })
+                .forEach(this::invalidateTask);
+        expireReplicas();
+        log.debug("Applied {} for user with ID: {}", writeMode, userId);
+    }
+
+    public void userDeleted(Long userId) {
+        Set<Long> previousTaskIds = previousTasksOf(userId);
+        userCache.evict(userId);
+        sharedUserCache.publishInvalidation(userId);
+        previousTaskIds.forEach(this::invalidateTask);
+        expireReplicas();
+        log.debug("Evicted deleted user with ID: {} and {} of their tasks", userId, previousTaskIds.size());
+    }
+
+    // Users whose cached taskIds may contain the task, from the reverse index when the task is not cached
+    private Set<Long> previousOwnersOf(Long taskId) {
+        TaskResponseDTO previous = taskCache.peek(taskId);
+        if (previous != null) {
+            return previous.getUserId() == null ? Set.of() : Set.of(previous.getUserId());
+        }
+
+        Set<Long> owners = new HashSet<>();
+        Arrays.stream(taskOwnerIndex.userIdsForTask(taskId)).forEach(owners::add);
+        return owners;
+    }
+
+    private Set<Long> previousTasksOf(Long userId) {
+        Set<Long> taskIds = new HashSet<>();
+        UserResponseDTO previous = userCache.peek(userId);
+        if (previous != null && previous.getTaskIds() != null) {
+            taskIds.addAll(previous.getTaskIds());
+        }
+        Arrays.stream(taskIndex.taskIdsForUser(userId)).forEach(taskIds::add);
+        return taskIds;
+    }
+
+    private void relinkTask(Long taskId, Set<Long> previousUserIds, Long currentUserId) {
+        previousUserIds.stream()
+                .filter(userId -> !userId.equals(currentUserId))
+                .forEach(userId -> updateTaskIds(userId, taskIds -> taskIds.remove(taskId)));
+        if (currentUserId != null) {
+            updateTaskIds(currentUserId, taskIds -> taskIds.add(taskId));
+        }
+    }
+
+    private void updateTaskIds(Long userId, Consumer<Set<Long>> change) {
+        // Other replicas cannot apply the change to their copies, so the user is invalidated there in both modes
+        sharedUserCache.publishInvalidation(userId);
+        if (writeMode == WriteMode.INVALIDATE) {
+            userCache.invalidate(userId);
+            return;
+        }
+
+        // Cached instances may still be serialized by other requests, so they are copied instead of modified
+        userCache.update(userId, user -> {
+            Set<Long> taskIds = user.getTaskIds() == null ? new HashSet<>() : new HashSet<>(user.getTaskIds());
+            change.accept(taskIds);
+            if (Objects.equals(taskIds, user.getTaskIds())) {
+                return user;
+            }
+            UserResponseDTO updated = new UserResponseDTO();
+            updated.setUserId(user.getUserId());
+            updated.setFullName(user.getFullName());
+            updated.setUserEmail(user.getUserEmail());
+            updated.setRole(user.getRole());
+            updated.setTaskIds(taskIds);
+            return updated;
+        });
+    }
+
+    // A write to either side can change both listings, tasks through their userId and users through their taskIds
+    private void expireReplicas() {
+        taskReplica.expire();
+        userReplica.expire();
+    }
+
+    private void invalidateTask(Long taskId) {
+        taskCache.invalidate(taskId);
+        sharedTaskCache.publishInvalidation(taskId);
+    }
+
+    private void invalidateUser(Long userId) {
+        userCache.invalidate(userId);
+        sharedUserCache.publishInvalidation(userId);
+    }
+}
@@ -0,0 +1,20 @@
+package com.project.webclient_service.cache;
+
+// Broadcast after an entity changed, so every other node drops its local copy. The origin is the node
+// that published it and ignores its own messages.
+public record CacheInvalidation(String origin, String cacheName, Long id) {
+
+    private static final String SEPARATOR = "|";
+
+    public String encode() {
+        return origin + SEPARATOR + cacheName + SEPARATOR + id;
+    }
+
+    public static CacheInvalidation decode(String message) {
+        String[] parts = message.split("\\|", 3);
+        if (parts.length != 3) {
+            throw new IllegalArgumentException("Malformed cache invalidation: " + message);
+        }
+        return new CacheInvalidation(parts[0], parts[1], Long.valueOf(parts[2]));
+    }
+}
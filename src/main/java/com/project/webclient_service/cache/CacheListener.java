@@ -0,0 +1,8 @@
+package com.project.webclient_service.cache;
+
+public interface CacheListener<V> {
+    // previous is null when the entry is new
+    void onPut(Long id, V previous, V current);
+    // Called for explicit evictions as well as capacity and expiry evictions
+    void onRemove(Long id, V removed);
+}
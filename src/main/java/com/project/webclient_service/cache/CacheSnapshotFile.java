@@ -0,0 +1,129 @@
+package com.project.webclient_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.zip.CRC32;
+
+// Snapshot of one cache on local disk. The file is a fixed header (magic, format version, creation
+// time, entry count, payload length and CRC32 of the payload) followed by the encoded entries. It is
+// replaced atomically on write and memory-mapped on read; files with another version, a checksum
+// mismatch or older than the maximum age are ignored.
+@Slf4j
+public class CacheSnapshotFile<V> {
+
+    private static final int MAGIC = 0x57435350;
+    private static final int FORMAT_VERSION = 1;
+    private static final int HEADER_BYTES = 4 + 4 + 8 + 4 + 4 + 4;
+
+    private final Path file;
+    private final SnapshotCodec<V> codec;
+
+    public CacheSnapshotFile(Path file, SnapshotCodec<V> codec) {
+        this.file = file;
+        this.codec = codec;
+    }
+
+    public Path getFile() {
+        return file;
+    }
+
+    public void write(Collection<V> values) throws IOException {
+        ByteArrayOutputStream payload = new ByteArrayOutputStream(values.size() * 64);
+        try (DataOutputStream out = new DataOutputStream(payload)) {
+            for (V value : values) {
+                codec.write(out, value);
+            }
+        }
+        byte[] payloadBytes = payload.toByteArray();
+        CRC32 crc = new CRC32();
+        crc.update(payloadBytes);
+
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES)
+                .putInt(MAGIC)
+                .putInt(FORMAT_VERSION)
+                .putLong(System.currentTimeMillis())
+                .putInt(values.size())
+                .putInt(payloadBytes.length)
+                .putInt((int) crc.getValue())
+                .flip();
+
+        Files.createDirectories(file.toAbsolutePath().getParent());
+        Path temporary = file.resolveSibling(file.getFileName() + ".tmp");
+        try (FileChannel channel = FileChannel.open(temporary, StandardOpenOption.CREATE, StandardOpenOption.WRITE,
+                StandardOpenOption.TRUNCATE_EXISTING)) {
+            ByteBuffer body = ByteBuffer.wrap(payloadBytes);
+            while (header.hasRemaining() || body.hasRemaining()) {
+                channel.write(new ByteBuffer[]{header, body});
+            }
+            channel.force(true);
+        }
+        Files.move(temporary, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+    }
+
+    // Returns the snapshot entries, or an empty list when there is no usable snapshot
+    public List<V> read(Duration maxAge) {
+        if (!Files.isRegularFile(file)) {
+            return List.of();
+        }
+
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            if (channel.size() < HEADER_BYTES) {
+                log.warn("Ignoring truncated cache snapshot {}", file);
+                return List.of();
+            }
+            MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+
+            int magic = buffer.getInt();
+            int version = buffer.getInt();
+            if (magic != MAGIC || version != FORMAT_VERSION) {
+                log.warn("Ignoring cache snapshot {} with unsupported format {}", file, version);
+                return List.of();
+            }
+            Instant createdAt = Instant.ofEpochMilli(buffer.getLong());
+            int count = buffer.getInt();
+            int payloadLength = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (createdAt.plus(maxAge).isBefore(Instant.now())) {
+                log.warn("Ignoring cache snapshot {} created at {}, older than {}", file, createdAt, maxAge);
+                return List.of();
+            }
+            if (payloadLength != channel.size() - HEADER_BYTES) {
+                log.warn("Ignoring truncated cache snapshot {}", file);
+                return List.of();
+            }
+
+            CRC32 crc = new CRC32();
+            crc.update(buffer.slice());
+            if ((int) crc.getValue() != checksum) {
+                log.warn("Ignoring cache snapshot {} with checksum mismatch", file);
+                return List.of();
+            }
+
+            List<V> values = new ArrayList<>(count);
+            for (int i = 0; i < count; i++) {
+                values.add(codec.read(buffer));
+            }
+            log.info("Read {} entries from cache snapshot {} created at {}", count, file, createdAt);
+            return values;
+        } catch (IOException | BufferUnderflowException e) {
+            log.warn("Failed to read cache snapshot {}: {}", file, e.toString());
+            return List.of();
+        }
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.List;
+
+// Persists taskCache and userCache to local snapshot files so a restart comes up with fallback data.
+// Snapshots are restored while the context starts, before the web server accepts traffic, and written
+// periodically and on shutdown.
+@Component
+@ConditionalOnProperty(name = "cache.snapshot.enabled", havingValue = "true")
+@Slf4j
+public class CacheSnapshotManager {
+
+    private final EntityCache<TaskResponseDTO> taskCache;
+    private final EntityCache<UserResponseDTO> userCache;
+    private final CacheSnapshotFile<TaskResponseDTO> taskSnapshot;
+    private final CacheSnapshotFile<UserResponseDTO> userSnapshot;
+    private final Duration maxAge;
+
+    public CacheSnapshotManager(EntityCache<TaskResponseDTO> taskCache,
+                                EntityCache<UserResponseDTO> userCache,
+                                @Value("${cache.snapshot.directory}") Path directory,
+                                @Value("${cache.snapshot.max-age}") Duration maxAge) {
+        this.taskCache = taskCache;
+        this.userCache = userCache;
+        this.taskSnapshot = new CacheSnapshotFile<>(directory.resolve("tasks.snapshot"), new TaskSnapshotCodec());
+        this.userSnapshot = new CacheSnapshotFile<>(directory.resolve("users.snapshot"), new UserSnapshotCodec());
+        this.maxAge = maxAge;
+    }
+
+    @PostConstruct
+    public void restore() {
+        restore(taskCache, taskSnapshot);
+        restore(userCache, userSnapshot);
+    }
+
+    @Scheduled(initialDelayString = "${cache.snapshot.interval}", fixedDelayString = "${cache.snapshot.interval}")
+    public void save() {
+        save(taskCache, taskSnapshot);
+        save(userCache, userSnapshot);
+    }
+
+    @PreDestroy
+    public void saveOnShutdown() {
+        save();
+    }
+
+    private <V> void restore(EntityCache<V> cache, CacheSnapshotFile<V> snapshot) {
+        long started = System.nanoTime();
+        cache.restore(snapshot.read(maxAge));
+        log.info("Restored {} entries into cache '{}' in {} ms", cache.size(), cache.getName(),
+                Duration.ofNanos(System.nanoTime() - started).toMillis());
+    }
+
+    private <V> void save(EntityCache<V> cache, CacheSnapshotFile<V> snapshot) {
+        // An empty cache, e.g. after starting during an outage, must not replace the last good snapshot
+        if (cache.isEmpty()) {
+            return;
+        }
+
+        try {
+            long started = System.nanoTime();
+            List<V> values = cache.values();
+            snapshot.write(values);
+            log.info("Wrote {} entries of cache '{}' to {} in {} ms", values.size(), cache.getName(), snapshot.getFile(),
+                    Duration.ofNanos(System.nanoTime() - started).toMillis());
+        } catch (IOException e) {
+            log.error("Failed to write snapshot of cache '{}' to {}", cache.getName(), snapshot.getFile(), e);
+        }
+    }
+}
@@ -0,0 +1,46 @@
+package com.project.webclient_service.cache;
+
+import java.util.Collection;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.ToLongFunction;
+
+// Order-independent 64-bit hash of the cache contents, the sum of the entry hashes. Puts and removals
+// add and subtract single entry hashes, so the hash of the whole cache is always available in O(1) and
+// equals of() over a listing with the same entries.
+public class ContentHash<V> implements CacheListener<V> {
+
+    private final ToLongFunction<V> entryHash;
+    private final AtomicLong sum = new AtomicLong();
+
+    public ContentHash(ToLongFunction<V> entryHash) {
+        this.entryHash = entryHash;
+    }
+
+    @Override
+    public void onPut(Long id, V previous, V current) {
+        long delta = entryHash.applyAsLong(current);
+        if (previous != null) {
+            delta -= entryHash.applyAsLong(previous);
+        }
+        sum.addAndGet(delta);
+    }
+
+    @Override
+    public void onRemove(Long id, V removed) {
+        if (removed != null) {
+            sum.addAndGet(-entryHash.applyAsLong(removed));
+        }
+    }
+
+    public long value() {
+        return sum.get();
+    }
+
+    public long of(Collection<V> values) {
+        long hash = 0;
+        for (V value : values) {
+            hash += entryHash.applyAsLong(value);
+        }
+        return hash;
+    }
+}
@@ -0,0 +1,187 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.ChangesDTO;
+import com.project.webclient_service.dto.DigestEntryDTO;
+import com.project.webclient_service.upstream.IdempotentRequests;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.core.ResolvableType;
+import org.springframework.web.reactive.function.client.WebClient;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+// Keeps an EntityReplica current with the changes the task manager reports, so the cost of a listing
+// follows the number of changed entities instead of the number of entities. The endpoints follow the
+// task manager's naming: <api>/list-<entity>s, <api>/list-<entity>?<entity>Id=, and for delta sync
+// <api>/list-<entity>-changes and <api>/list-<entity>-digests. The entity cache is updated with the
+// changes only, and rewritten as a whole only when it no longer matches the replica.
+@Slf4j
+public class DeltaSync<V> {
+
+    private final String entity;
+    private final Class<V> type;
+    private final ParameterizedTypeReference<ChangesDTO<V>> changesType;
+    private final EntityReplica<V> replica;
+    private final EntityCache<V> cache;
+    private final ContentHash<V> cacheContentHash;
+    private final WebClient webClient;
+    private final IdempotentRequests idempotentRequests;
+    private final SyncMode mode;
+    private final Duration interval;
+    private final int maxFetches;
+    private final int concurrency;
+    private final String listPath;
+    private final String entityPath;
+    private final String changesPath;
+    private final String digestsPath;
+
+    public DeltaSync(String api, String entity, Class<V> type, EntityReplica<V> replica, EntityCache<V> cache,
+                     ContentHash<V> cacheContentHash, WebClient webClient, IdempotentRequests idempotentRequests,
+                     SyncMode mode, Duration interval, int maxFetches, int concurrency) {
+        this.entity = entity;
+        this.type = type;
+        this.changesType = ParameterizedTypeReference.forType(ResolvableType.forClassWithGenerics(ChangesDTO.class, type).getType());
+        this.replica = replica;
+        this.cache = cache;
+        this.cacheContentHash = cacheContentHash;
+        this.webClient = webClient;
+        this.idempotentRequests = idempotentRequests;
+        this.mode = mode;
+        this.interval = interval;
+        this.maxFetches = maxFetches;
+        this.concurrency = concurrency;
+        this.listPath = api + "/list-" + entity + "s";
+        this.entityPath = api + "/list-" + entity;
+        this.changesPath = api + "/list-" + entity + "-changes";
+        this.digestsPath = api + "/list-" + entity + "-digests";
+    }
+
+    public boolean isEnabled() {
+        return mode != SyncMode.OFF;
+    }
+
+    // Listings within the interval after a synchronization are served without an upstream call
+    public boolean isFresh() {
+        return replica.isSyncedWithin(interval);
+    }
+
+    public boolean isLoaded() {
+        return replica.isLoaded();
+    }
+
+    public Listing<V> listing() {
+        return replica.listing();
+    }
+
+    // The cache's write epoch is taken before anything is fetched, entries written in the meantime are kept
+    public Mono<Listing<V>> sync() {
+        return Mono.defer(() -> {
+            long writeEpoch = cache.writeEpoch();
+            Mono<Void> sync = mode == SyncMode.CHANGES ? syncChanges(writeEpoch) : syncDigests(writeEpoch);
+            return sync.then(Mono.fromSupplier(replica::listing));
+        });
+    }
+
+    // Changes since the replica's watermark from the task manager's change feed. An expired watermark is
+    // answered with 410 Gone, the replica is then loaded again from scratch.
+    private Mono<Void> syncChanges(long writeEpoch) {
+        String watermark = replica.watermark();
+        Mono<Void> fullSync = fetchChanges(null)
+                .doOnNext(changes -> replicate(listOrEmpty(changes.getChanged()), changes.getWatermark(), Map.of(),
+                        writeEpoch))
+                .then();
+        if (watermark == null) {
+            return fullSync;
+        }
+        return fetchChanges(watermark)
+                .doOnNext(changes -> apply(listOrEmpty(changes.getChanged()), listOrEmpty(changes.getDeletedIds()),
+                        changes.getWatermark(), Map.of(), writeEpoch))
+                .then()
+                .onErrorResume(WebClientResponseException.Gone.class, e -> {
+                    log.info("Change watermark {} of {}s expired, synchronizing all {}s", watermark, entity, entity);
+                    return fullSync;
+                });
+    }
+
+    private Mono<ChangesDTO<V>> fetchChanges(String watermark) {
+        return idempotentRequests.execute("GET " + changesPath, () -> (watermark == null
+                        ? webClient.get().uri(changesPath)
+                        : webClient.get().uri(changesPath + "?since={since}", watermark))
+                .retrieve()
+                .bodyToMono(changesType));
+    }
+
+    // For task managers without a change feed: the id and version listing is diffed against the replica
+    // and only the changed entities are fetched. The full listing is loaded when the replica is empty or
+    // more than max-fetches entities changed.
+    private Mono<Void> syncDigests(long writeEpoch) {
+        return idempotentRequests.execute("GET " + digestsPath, () -> webClient.get()
+                        .uri(digestsPath)
+                        .retrieve()
+                        .bodyToFlux(DigestEntryDTO.class)
+                        .collectMap(DigestEntryDTO::getId, DigestEntryDTO::getVersion))
+                .flatMap(versions -> {
+                    if (!replica.isLoaded()) {
+                        return fetchAll().doOnNext(values -> replicate(values, null, versions, writeEpoch)).then();
+                    }
+                    EntityReplica.Diff diff = replica.diff(versions);
+                    if (diff.changedIds().size() > maxFetches) {
+                        log.debug("{} {}s changed, synchronizing all {}s", diff.changedIds().size(), entity, entity);
+                        return fetchAll().doOnNext(values -> replicate(values, null, versions, writeEpoch)).then();
+                    }
+                    return Flux.fromIterable(diff.changedIds())
+                            .flatMap(this::fetchChanged, concurrency)
+                            .collectList()
+                            .doOnNext(values -> apply(values, diff.deletedIds(), null, versions, writeEpoch))
+                            .then();
+                });
+    }
+
+    private Mono<List<V>> fetchAll() {
+        return idempotentRequests.execute("GET " + listPath, () -> webClient.get()
+                .uri(listPath)
+                .retrieve()
+                .bodyToFlux(type)
+                .collectList());
+    }
+
+    // An entity deleted since the digest was taken is missing from the next digest and removed then
+    private Mono<V> fetchChanged(Long id) {
+        return idempotentRequests.execute("GET " + entityPath, () -> webClient.get()
+                        .uri(entityPath + "?" + entity + "Id={id}", id)
+                        .retrieve()
+                        .bodyToMono(type))
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> Mono.empty());
+    }
+
+    private void replicate(List<V> values, String watermark, Map<Long, String> versions, long writeEpoch) {
+        log.debug("Replicating {} {}s", values.size(), entity);
+        replica.replace(values, watermark, versions);
+        cache.replaceAll(replica.listing().values(), writeEpoch);
+    }
+
+    // Only the changed entries are written to the cache. When it still differs from the replica, e.g. after
+    // evictions, the whole listing is written once.
+    private void apply(List<V> changed, List<Long> deletedIds, String watermark, Map<Long, String> versions,
+                       long writeEpoch) {
+        log.debug("Applying {} changed and {} deleted {}s", changed.size(), deletedIds.size(), entity);
+        replica.apply(changed, deletedIds, watermark, versions);
+        cache.putAll(changed);
+        deletedIds.forEach(cache::evict);
+
+        if (cacheContentHash.value() == replica.contentHash()) {
+            cache.markComplete();
+        } else {
+            cache.replaceAll(replica.listing().values(), writeEpoch);
+        }
+    }
+
+    private static <T> List<T> listOrEmpty(List<T> list) {
+        return list == null ? List.of() : list;
+    }
+}
@@ -0,0 +1,348 @@
+package com.project.webclient_service.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.github.benmanes.caffeine.cache.Policy;
+import com.github.benmanes.caffeine.cache.RemovalCause;
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import io.micrometer.core.instrument.binder.cache.CaffeineCacheMetrics;
+import lombok.extern.slf4j.Slf4j;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Function;
+import java.util.function.Supplier;
+import java.util.function.UnaryOperator;
+
+// Bounded in-memory cache shared by the services. Entries expire after the configured TTL and
+// the size bound is enforced with Caffeine's W-TinyLFU eviction, so heap use stays flat. As a bean
+// it publishes its hit, miss, size and eviction meters under cache.* tagged with its name, and the
+// outcome of the circuit breaker fallbacks it served under cache.fallbacks.
+@Slf4j
+public class EntityCache<V> implements MeterBinder {
+
+    private final String name;
+    private final Function<V, Long> idExtractor;
+    private final Cache<Long, V> cache;
+    private final Policy.FixedExpiration<Long, V> expiration;
+    private final ReadMode readMode;
+    private final Duration refreshAfter;
+    // Ids with a background refresh in progress, so a stale entry triggers only one upstream call
+    private final Set<Long> refreshing = ConcurrentHashMap.newKeySet();
+    // Ids loaded from a snapshot and not yet confirmed by the task manager, treated as stale
+    private final Set<Long> restored = ConcurrentHashMap.newKeySet();
+    // Capacity and expiry evictions, a full listing is only trusted while none happened
+    private final AtomicLong evictions = new AtomicLong();
+    private volatile long completeUntilNanos;
+    // Circuit breaker fallbacks answered from this cache and fallbacks that found nothing to serve
+    private final AtomicLong fallbackHits = new AtomicLong();
+    private final AtomicLong fallbackMisses = new AtomicLong();
+    private final List<CacheListener<V>> listeners = new CopyOnWriteArrayList<>();
+    // Epochs of single-entry writes and deletes. A listing fetched since an epoch neither overwrites nor
+    // drops the entries written after it, so writes made while the listing was in flight are kept.
+    private final AtomicLong writeEpoch = new AtomicLong();
+    private final ConcurrentMap<Long, Long> writtenAtEpoch = new ConcurrentHashMap<>();
+
+    public EntityCache(String name, Function<V, Long> idExtractor, long maximumSize, Duration timeToLive,
+                       ReadMode readMode, Duration refreshAfter) {
+        this.name = name;
+        this.idExtractor = idExtractor;
+        this.readMode = readMode;
+        this.refreshAfter = refreshAfter;
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(timeToLive)
+                .evictionListener((Long id, V value, RemovalCause cause) -> {
+                    evictions.incrementAndGet();
+                    completeUntilNanos = 0;
+                    restored.remove(id);
+                    writtenAtEpoch.remove(id);
+                    listeners.forEach(listener -> listener.onRemove(id, value));
+                })
+                .recordStats()
+                .build();
+        this.expiration = cache.policy().expireAfterWrite().orElseThrow();
+        log.info("Initialized cache '{}' with maximum size {}, TTL {}, read mode {} and refresh after {}",
+                name, maximumSize, timeToLive, readMode, refreshAfter);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        CaffeineCacheMetrics.monitor(registry, cache, name);
+        FunctionCounter.builder("cache.fallbacks", fallbackHits, AtomicLong::get)
+                .description("Circuit breaker fallbacks served from the cache")
+                .tag("cache", name)
+                .tag("result", "hit")
+                .register(registry);
+        FunctionCounter.builder("cache.fallbacks", fallbackMisses, AtomicLong::get)
+                .description("Circuit breaker fallbacks without cached data")
+                .tag("cache", name)
+                .tag("result", "miss")
+                .register(registry);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Function<V, Long> getIdExtractor() {
+        return idExtractor;
+    }
+
+    public ReadMode getReadMode() {
+        return readMode;
+    }
+
+    public Duration getRefreshAfter() {
+        return refreshAfter;
+    }
+
+    // Listeners are notified atomically with the change of the entry, so they must be fast and must
+    // not call back into this cache
+    public void addListener(CacheListener<V> listener) {
+        listeners.add(listener);
+    }
+
+    public V get(Long id) {
+        return cache.getIfPresent(id);
+    }
+
+    // Returns the entry only while it is younger than the refresh interval, regardless of the read mode
+    public V getIfFresh(Long id) {
+        V cached = cache.getIfPresent(id);
+        return cached != null && !isStale(id) ? cached : null;
+    }
+
+    // Whether the entry is cached and within the refresh interval, without recording a read
+    public boolean isFresh(Long id) {
+        return peek(id) != null && !isStale(id);
+    }
+
+    // Lookup that is not recorded in the hit/miss statistics, used when resolving index results
+    public V peek(Long id) {
+        return cache.asMap().get(id);
+    }
+
+    // Reads an entity according to the configured read mode. The loader must fetch the entity from the
+    // task manager and write it back into this cache.
+    public Mono<V> read(Long id, Supplier<Mono<V>> loader) {
+        if (readMode == ReadMode.NETWORK_FIRST) {
+            return loader.get();
+        }
+
+        return Mono.defer(() -> {
+            V cached = cache.getIfPresent(id);
+            if (cached == null) {
+                return loader.get();
+            }
+            if (isStale(id)) {
+                refreshInBackground(id, loader);
+            }
+            log.debug("Serving {} entry with ID: {} from memory", name, id);
+            return Mono.just(cached);
+        });
+    }
+
+    private boolean isStale(Long id) {
+        if (!restored.isEmpty() && restored.contains(id)) {
+            return true;
+        }
+        return expiration.ageOf(id)
+                .map(age -> age.compareTo(refreshAfter) > 0)
+                .orElse(true);
+    }
+
+    private void refreshInBackground(Long id, Supplier<Mono<V>> loader) {
+        if (!refreshing.add(id)) {
+            return;
+        }
+
+        log.debug("Refreshing stale {} entry with ID: {} in the background", name, id);
+        loader.get()
+                .doFinally(signal -> refreshing.remove(id))
+                .subscribe(
+                        value -> log.debug("Refreshed {} entry with ID: {}", name, id),
+                        error -> log.warn("Background refresh of {} entry with ID: {} failed: {}", name, id, error.getMessage()));
+    }
+
+    public void put(V value) {
+        Long id = idExtractor.apply(value);
+        if (id != null) {
+            recordWrite(id);
+            put(id, value);
+        }
+    }
+
+    private void put(Long id, V value) {
+        if (!restored.isEmpty()) {
+            restored.remove(id);
+        }
+        cache.asMap().compute(id, (key, previous) -> {
+            listeners.forEach(listener -> listener.onPut(key, previous, value));
+            return value;
+        });
+    }
+
+    public void putAll(Collection<V> values) {
+        values.forEach(this::put);
+    }
+
+    // Loads entries from a snapshot. They serve as fallback data but are stale until fetched again, and
+    // never mark the cache complete.
+    public void restore(Collection<V> values) {
+        values.forEach(value -> {
+            Long id = idExtractor.apply(value);
+            if (id == null) {
+                return;
+            }
+            cache.asMap().compute(id, (key, previous) -> {
+                if (previous != null) {
+                    return previous;
+                }
+                restored.add(key);
+                listeners.forEach(listener -> listener.onPut(key, null, value));
+                return value;
+            });
+        });
+    }
+
+    // Current write epoch, to be taken before fetching a listing that is passed to replaceAll
+    public long writeEpoch() {
+        return writeEpoch.get();
+    }
+
+    private void recordWrite(Long id) {
+        writtenAtEpoch.put(id, writeEpoch.incrementAndGet());
+    }
+
+    private boolean writtenSince(Long id, long epoch) {
+        Long writtenAt = writtenAtEpoch.get(id);
+        return writtenAt != null && writtenAt > epoch;
+    }
+
+    // Replaces the cached contents with a full upstream listing fetched since the given write epoch.
+    // Entries missing from the listing were deleted upstream and are dropped, and the cache is marked
+    // complete for one refresh interval so list queries can be answered locally. Entries written or
+    // deleted after the epoch are newer than the listing and stay as they are.
+    public void replaceAll(Collection<V> values, long sinceEpoch) {
+        long evictionsBefore = evictions.get();
+        Set<Long> listedIds = new HashSet<>(values.size());
+        values.forEach(value -> {
+            Long id = idExtractor.apply(value);
+            if (id == null) {
+                return;
+            }
+            listedIds.add(id);
+            cache.asMap().compute(id, (key, previous) -> {
+                if (writtenSince(key, sinceEpoch)) {
+                    return previous;
+                }
+                restored.remove(key);
+                listeners.forEach(listener -> listener.onPut(key, previous, value));
+                return value;
+            });
+        });
+        cache.asMap().keySet().stream()
+                .filter(id -> !listedIds.contains(id))
+                .toList()
+                .forEach(id -> cache.asMap().computeIfPresent(id, (key, removed) -> {
+                    if (writtenSince(key, sinceEpoch)) {
+                        return removed;
+                    }
+                    restored.remove(key);
+                    listeners.forEach(listener -> listener.onRemove(key, removed));
+                    return null;
+                }));
+        // Writes up to the epoch are part of this listing, later listings are fetched after it
+        writtenAtEpoch.values().removeIf(epoch -> epoch <= sinceEpoch);
+        cache.cleanUp();
+
+        if (evictions.get() == evictionsBefore) {
+            completeUntilNanos = System.nanoTime() + refreshAfter.toNanos();
+        } else {
+            log.warn("Cache '{}' cannot hold the full listing of {} entries, list queries will use the task manager",
+                    name, listedIds.size());
+        }
+    }
+
+    // Trusts the cached contents as the complete upstream listing for another refresh interval. Only for
+    // contents verified to equal a listing the task manager confirmed as unchanged.
+    public void markComplete() {
+        completeUntilNanos = System.nanoTime() + refreshAfter.toNanos();
+    }
+
+    // True while the cache holds the complete upstream listing
+    public boolean isComplete() {
+        long completeUntil = completeUntilNanos;
+        return completeUntil != 0 && System.nanoTime() - completeUntil < 0;
+    }
+
+    // Replaces a cached entry with the result of the update, if the entry is present
+    public void update(Long id, UnaryOperator<V> update) {
+        recordWrite(id);
+        cache.asMap().computeIfPresent(id, (key, previous) -> {
+            V current = update.apply(previous);
+            listeners.forEach(listener -> listener.onPut(key, previous, current));
+            return current;
+        });
+    }
+
+    // Removes an entity that no longer exists upstream
+    public void evict(Long id) {
+        recordWrite(id);
+        cache.asMap().computeIfPresent(id, (key, removed) -> {
+            restored.remove(key);
+            listeners.forEach(listener -> listener.onRemove(key, removed));
+            return null;
+        });
+    }
+
+    // Removes an entity that still exists upstream but whose cached copy is outdated. The cache no longer
+    // holds the complete listing afterwards.
+    public void invalidate(Long id) {
+        completeUntilNanos = 0;
+        evict(id);
+    }
+
+    // Ids of the entries the W-TinyLFU policy ranks as hottest by access frequency and recency, after
+    // draining the pending reads
+    public List<Long> hottestIds(int limit) {
+        cache.cleanUp();
+        return cache.policy().eviction()
+                .map(eviction -> List.copyOf(eviction.hottest(limit).keySet()))
+                .orElse(List.of());
+    }
+
+    // Records whether a circuit breaker fallback found data in this cache
+    public void recordFallback(boolean hit) {
+        (hit ? fallbackHits : fallbackMisses).incrementAndGet();
+    }
+
+    public List<V> values() {
+        return List.copyOf(cache.asMap().values());
+    }
+
+    public boolean isEmpty() {
+        return cache.asMap().isEmpty();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    // Hit, miss and eviction counters since startup
+    public CacheStats stats() {
+        return cache.stats();
+    }
+}
@@ -0,0 +1,85 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+
+import java.time.LocalDateTime;
+import java.util.Set;
+
+// 64-bit content hashes of the cached entities over every serialized field, used for ContentHash.
+// Field hashes are combined FNV-style and the result goes through the SplitMix64 finalizer, so sums of
+// entry hashes stay well distributed.
+public final class EntityHashes {
+
+    private static final long SEED = 0x9E3779B97F4A7C15L;
+    private static final long PRIME = 0x100000001B3L;
+    private static final long NULL = 0x5851F42D4C957F2DL;
+
+    private EntityHashes() {
+    }
+
+    public static long task(TaskResponseDTO task) {
+        long hash = SEED;
+        hash = combine(hash, hash(task.getTaskId()));
+        hash = combine(hash, hash(task.getTaskTitle()));
+        hash = combine(hash, hash(task.getTaskDescription()));
+        hash = combine(hash, hash(task.getTaskDueDate()));
+        hash = combine(hash, hash(task.getUserId()));
+        return mix(hash);
+    }
+
+    public static long user(UserResponseDTO user) {
+        long hash = SEED;
+        hash = combine(hash, hash(user.getUserId()));
+        hash = combine(hash, hash(user.getFullName()));
+        hash = combine(hash, hash(user.getUserEmail()));
+        hash = combine(hash, hash(user.getRole()));
+        hash = combine(hash, hash(user.getTaskIds()));
+        return mix(hash);
+    }
+
+    private static long combine(long hash, long field) {
+        return (hash ^ field) * PRIME;
+    }
+
+    private static long hash(Long value) {
+        return value == null ? NULL : mix(value);
+    }
+
+    private static long hash(String value) {
+        if (value == null) {
+            return NULL;
+        }
+        long hash = SEED;
+        for (int i = 0; i < value.length(); i++) {
+            hash = combine(hash, value.charAt(i));
+        }
+        return mix(hash + value.length());
+    }
+
+    private static long hash(LocalDateTime value) {
+        if (value == null) {
+            return NULL;
+        }
+        return mix(combine(mix(value.toLocalDate().toEpochDay()), value.toLocalTime().toNanoOfDay()));
+    }
+
+    // Sets are unordered, so their elements are summed
+    private static long hash(Set<Long> values) {
+        if (values == null) {
+            return NULL;
+        }
+        long hash = values.size();
+        for (Long value : values) {
+            hash += hash(value);
+        }
+        return mix(hash);
+    }
+
+    private static long mix(long value) {
+        long z = value + SEED;
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -0,0 +1,132 @@
+package com.project.webclient_service.cache;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.function.Function;
+import java.util.function.ToLongFunction;
+
+// Local copy of the full upstream listing, kept current by applying changes instead of reloading it.
+// Unlike EntityCache it is unbounded and never expires entries. Changes are applied under the replica's
+// lock and keep the content hash current in O(changes); the immutable listing readers get is copied at
+// most once per synchronization, on the first read after a change.
+public class EntityReplica<V> {
+
+    private final Function<V, Long> idExtractor;
+    private final ContentHash<V> contentHash;
+    private final Map<Long, V> entries = new LinkedHashMap<>();
+    // Upstream versions of the entries, known in digest mode only
+    private final Map<Long, String> versions = new HashMap<>();
+    private String watermark;
+    private volatile boolean loaded;
+    // Null after a change until the next read
+    private volatile Listing<V> listing;
+    private volatile long syncedAtNanos;
+    private volatile boolean expired;
+
+    public record Diff(List<Long> changedIds, List<Long> deletedIds) {
+    }
+
+    public EntityReplica(Function<V, Long> idExtractor, ToLongFunction<V> entryHash) {
+        this.idExtractor = idExtractor;
+        this.contentHash = new ContentHash<>(entryHash);
+    }
+
+    public boolean isLoaded() {
+        return loaded;
+    }
+
+    // True while the last synchronization is younger than the interval and no write went through us since
+    public boolean isSyncedWithin(Duration interval) {
+        return isLoaded() && !expired && System.nanoTime() - syncedAtNanos < interval.toNanos();
+    }
+
+    // Forces the next listing request to synchronize, called after writes so they are read back
+    public void expire() {
+        expired = true;
+    }
+
+    // The replicated entities, null before the first synchronization
+    public Listing<V> listing() {
+        Listing<V> current = listing;
+        if (current != null || !loaded) {
+            return current;
+        }
+        synchronized (this) {
+            if (listing == null) {
+                listing = new Listing<>(List.copyOf(entries.values()), contentHash.value(), null);
+            }
+            return listing;
+        }
+    }
+
+    public long contentHash() {
+        return contentHash.value();
+    }
+
+    public synchronized String watermark() {
+        return watermark;
+    }
+
+    // Replaces the contents with a full listing
+    public synchronized void replace(Collection<V> values, String watermark, Map<Long, String> versions) {
+        entries.values().forEach(value -> contentHash.onRemove(idExtractor.apply(value), value));
+        entries.clear();
+        this.versions.clear();
+        listing = null;
+        apply(values, List.of(), watermark, versions);
+    }
+
+    // Applies created, updated and deleted entities. Versions are recorded for the applied entities only,
+    // so an entity whose fetch failed is found changed again by the next diff.
+    public synchronized void apply(Collection<V> changed, Collection<Long> deletedIds, String watermark,
+                                   Map<Long, String> versions) {
+        for (V value : changed) {
+            Long id = idExtractor.apply(value);
+            if (id == null) {
+                continue;
+            }
+            contentHash.onPut(id, entries.put(id, value), value);
+            String version = versions.get(id);
+            if (version != null) {
+                this.versions.put(id, version);
+            }
+        }
+        for (Long id : deletedIds) {
+            V removed = entries.remove(id);
+            contentHash.onRemove(id, removed);
+            this.versions.remove(id);
+        }
+        this.watermark = watermark;
+        if (!changed.isEmpty() || !deletedIds.isEmpty()) {
+            listing = null;
+        }
+        loaded = true;
+        syncedAtNanos = System.nanoTime();
+        expired = false;
+    }
+
+    // Ids whose upstream version differs from the replica's, and ids no longer listed upstream. An entity
+    // listed without a version cannot be compared and counts as changed.
+    public synchronized Diff diff(Map<Long, String> upstreamVersions) {
+        List<Long> changedIds = new ArrayList<>();
+        upstreamVersions.forEach((id, version) -> {
+            if (version == null || !Objects.equals(version, versions.get(id))) {
+                changedIds.add(id);
+            }
+        });
+        List<Long> deletedIds = entries.keySet().stream()
+                .filter(id -> !upstreamVersions.containsKey(id))
+                .toList();
+        return new Diff(changedIds, deletedIds);
+    }
+
+    public synchronized int size() {
+        return entries.size();
+    }
+}
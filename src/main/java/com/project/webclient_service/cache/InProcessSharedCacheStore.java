@@ -0,0 +1,55 @@
+package com.project.webclient_service.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// In-process stand-in for the shared tier, for tests and local development. Several TieredCache
+// instances on one store behave like replicas sharing a Redis instance.
+public class InProcessSharedCacheStore implements SharedCacheStore {
+
+    private record Entry(byte[] value, long expiresAtNanos) {
+    }
+
+    private final ConcurrentMap<String, Entry> entries = new ConcurrentHashMap<>();
+    private final Sinks.Many<CacheInvalidation> invalidations = Sinks.many().multicast().directBestEffort();
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.fromSupplier(() -> {
+            Entry entry = entries.get(key);
+            if (entry == null) {
+                return null;
+            }
+            if (System.nanoTime() - entry.expiresAtNanos() >= 0) {
+                entries.remove(key, entry);
+                return null;
+            }
+            return entry.value();
+        });
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration timeToLive) {
+        return Mono.fromRunnable(() -> entries.put(key, new Entry(value, System.nanoTime() + timeToLive.toNanos())));
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return Mono.fromRunnable(() -> entries.remove(key));
+    }
+
+    @Override
+    public Mono<Void> publish(CacheInvalidation invalidation) {
+        return Mono.fromRunnable(() -> invalidations.emitNext(invalidation, Sinks.EmitFailureHandler.busyLooping(Duration.ofMillis(100))));
+    }
+
+    @Override
+    public Flux<CacheInvalidation> invalidations() {
+        return invalidations.asFlux();
+    }
+}
@@ -0,0 +1,13 @@
+package com.project.webclient_service.cache;
+
+import java.util.List;
+
+// A full entity listing with its ContentHash, and the ETag the task manager sent with it, if any
+public record Listing<V>(List<V> values, long contentHash, String upstreamEtag) {
+
+    // Weak ETag of the listing, identical for listings with the same entries. Order and representation of
+    // the entries are not hashed, so equal tags only promise semantically equivalent bodies.
+    public String etag() {
+        return "W/\"" + Long.toHexString(contentHash) + "\"";
+    }
+}
@@ -0,0 +1,35 @@
+package com.project.webclient_service.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Used when no shared tier is configured, every replica only has its local cache
+public class NoopSharedCacheStore implements SharedCacheStore {
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration timeToLive) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Mono<Void> publish(CacheInvalidation invalidation) {
+        return Mono.empty();
+    }
+
+    @Override
+    public Flux<CacheInvalidation> invalidations() {
+        return Flux.never();
+    }
+}
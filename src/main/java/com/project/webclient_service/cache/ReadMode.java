@@ -0,0 +1,8 @@
+package com.project.webclient_service.cache;
+
+public enum ReadMode {
+    // Always call the task manager, the cache is only used by the circuit breaker fallback
+    NETWORK_FIRST,
+    // Serve fresh entries from memory, serve stale entries while refreshing them in the background
+    CACHE_FIRST
+}
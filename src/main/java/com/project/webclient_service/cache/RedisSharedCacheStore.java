@@ -0,0 +1,61 @@
+package com.project.webclient_service.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+import org.springframework.data.redis.core.ReactiveRedisTemplate;
+import org.springframework.data.redis.serializer.RedisSerializationContext;
+import org.springframework.data.redis.serializer.RedisSerializer;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.util.retry.Retry;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+
+// Shared tier on Redis: entities are plain keys with a TTL, invalidations go through pub/sub
+@Slf4j
+public class RedisSharedCacheStore implements SharedCacheStore {
+
+    private final ReactiveRedisTemplate<String, byte[]> redis;
+    private final String channel;
+    private final Flux<CacheInvalidation> invalidations;
+
+    public RedisSharedCacheStore(ReactiveRedisConnectionFactory connectionFactory, String keyPrefix) {
+        this.redis = new ReactiveRedisTemplate<>(connectionFactory, RedisSerializationContext
+                .<String, byte[]>newSerializationContext(RedisSerializer.string())
+                .value(RedisSerializer.byteArray())
+                .build());
+        this.channel = keyPrefix + ":invalidations";
+        // One subscription per node, resubscribed after connection loss
+        this.invalidations = redis.listenToChannel(channel)
+                .map(message -> CacheInvalidation.decode(new String(message.getMessage(), StandardCharsets.UTF_8)))
+                .doOnError(error -> log.warn("Lost subscription to cache invalidation channel {}: {}", channel, error.getMessage()))
+                .retryWhen(Retry.backoff(Long.MAX_VALUE, Duration.ofSeconds(1)).maxBackoff(Duration.ofSeconds(30)))
+                .share();
+    }
+
+    @Override
+    public Mono<byte[]> get(String key) {
+        return redis.opsForValue().get(key);
+    }
+
+    @Override
+    public Mono<Void> put(String key, byte[] value, Duration timeToLive) {
+        return redis.opsForValue().set(key, value, timeToLive).then();
+    }
+
+    @Override
+    public Mono<Void> delete(String key) {
+        return redis.delete(key).then();
+    }
+
+    @Override
+    public Mono<Void> publish(CacheInvalidation invalidation) {
+        return redis.convertAndSend(channel, invalidation.encode().getBytes(StandardCharsets.UTF_8)).then();
+    }
+
+    @Override
+    public Flux<CacheInvalidation> invalidations() {
+        return invalidations;
+    }
+}
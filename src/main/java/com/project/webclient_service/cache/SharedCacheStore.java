@@ -0,0 +1,21 @@
+package com.project.webclient_service.cache;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+
+// Networked second cache level shared by all replicas of this service, plus the channel used to
+// broadcast invalidations between them. Values are opaque encoded entities.
+public interface SharedCacheStore {
+
+    Mono<byte[]> get(String key);
+
+    Mono<Void> put(String key, byte[] value, Duration timeToLive);
+
+    Mono<Void> delete(String key);
+
+    Mono<Void> publish(CacheInvalidation invalidation);
+
+    Flux<CacheInvalidation> invalidations();
+}
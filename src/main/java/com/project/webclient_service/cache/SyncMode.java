@@ -0,0 +1,10 @@
+package com.project.webclient_service.cache;
+
+public enum SyncMode {
+    // Every listing request loads the full listing
+    OFF,
+    // Changes since the last watermark from the task manager's change feed
+    CHANGES,
+    // Diff of an id and version listing against the replica, changed entities fetched one by one
+    DIGEST
+}
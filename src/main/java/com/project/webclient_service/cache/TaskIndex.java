@@ -0,0 +1,95 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+
+import java.time.LocalDateTime;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+
+// Secondary indexes over the task cache: task ids by user id and by due date. Kept consistent through
+// the cache listener callbacks, which run atomically with every put, update, eviction and delete.
+public class TaskIndex implements CacheListener<TaskResponseDTO> {
+
+    private final ConcurrentMap<Long, LongArraySet> taskIdsByUserId = new ConcurrentHashMap<>();
+    private final ConcurrentSkipListSet<DueDateEntry> taskIdsByDueDate = new ConcurrentSkipListSet<>();
+
+    private record DueDateEntry(LocalDateTime dueDate, long taskId) implements Comparable<DueDateEntry> {
+        @Override
+        public int compareTo(DueDateEntry other) {
+            int byDueDate = dueDate.compareTo(other.dueDate);
+            return byDueDate != 0 ? byDueDate : Long.compare(taskId, other.taskId);
+        }
+    }
+
+    @Override
+    public void onPut(Long taskId, TaskResponseDTO previous, TaskResponseDTO current) {
+        if (previous != null) {
+            if (!Objects.equals(previous.getUserId(), current.getUserId())) {
+                removeUserEntry(previous.getUserId(), taskId);
+            }
+            if (!Objects.equals(previous.getTaskDueDate(), current.getTaskDueDate())) {
+                removeDueDateEntry(previous.getTaskDueDate(), taskId);
+            }
+        }
+
+        if (current.getUserId() != null) {
+            taskIdsByUserId.compute(current.getUserId(), (userId, taskIds) -> {
+                LongArraySet bucket = taskIds == null ? new LongArraySet() : taskIds;
+                bucket.add(taskId);
+                return bucket;
+            });
+        }
+        if (current.getTaskDueDate() != null) {
+            taskIdsByDueDate.add(new DueDateEntry(current.getTaskDueDate(), taskId));
+        }
+    }
+
+    @Override
+    public void onRemove(Long taskId, TaskResponseDTO removed) {
+        if (removed != null) {
+            removeUserEntry(removed.getUserId(), taskId);
+            removeDueDateEntry(removed.getTaskDueDate(), taskId);
+        }
+    }
+
+    private void removeUserEntry(Long userId, long taskId) {
+        if (userId != null) {
+            taskIdsByUserId.computeIfPresent(userId, (id, taskIds) -> {
+                taskIds.remove(taskId);
+                return taskIds.isEmpty() ? null : taskIds;
+            });
+        }
+    }
+
+    private void removeDueDateEntry(LocalDateTime dueDate, long taskId) {
+        if (dueDate != null) {
+            taskIdsByDueDate.remove(new DueDateEntry(dueDate, taskId));
+        }
+    }
+
+    // Sorted ids of the cached tasks assigned to the user
+    public long[] taskIdsForUser(Long userId) {
+        LongArraySet taskIds = taskIdsByUserId.get(userId);
+        return taskIds == null ? new long[0] : taskIds.toArray();
+    }
+
+    // Ids of the cached tasks due in [from, to), ordered by due date. A null bound is open.
+    public long[] taskIdsDueBetween(LocalDateTime from, LocalDateTime to) {
+        var range = from == null
+                ? (to == null ? taskIdsByDueDate : taskIdsByDueDate.headSet(new DueDateEntry(to, Long.MIN_VALUE)))
+                : (to == null
+                        ? taskIdsByDueDate.tailSet(new DueDateEntry(from, Long.MIN_VALUE))
+                        : taskIdsByDueDate.subSet(new DueDateEntry(from, Long.MIN_VALUE), new DueDateEntry(to, Long.MIN_VALUE)));
+        return range.stream().mapToLong(DueDateEntry::taskId).toArray();
+    }
+
+    public int userCount() {
+        return taskIdsByUserId.size();
+    }
+
+    public int dueDateCount() {
+        return taskIdsByDueDate.size();
+    }
+}
@@ -0,0 +1,49 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.UserResponseDTO;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+// Reverse index over the user cache: ids of the cached users whose taskIds contain a task. Lets a task
+// write find the previous owner without scanning the cached users when the task itself is not cached.
+public class TaskOwnerIndex implements CacheListener<UserResponseDTO> {
+
+    private final ConcurrentMap<Long, LongArraySet> userIdsByTaskId = new ConcurrentHashMap<>();
+
+    @Override
+    public void onPut(Long userId, UserResponseDTO previous, UserResponseDTO current) {
+        Set<Long> currentTaskIds = current.getTaskIds() == null ? Set.of() : current.getTaskIds();
+        if (previous != null && previous.getTaskIds() != null) {
+            previous.getTaskIds().stream()
+                    .filter(taskId -> !currentTaskIds.contains(taskId))
+                    .forEach(taskId -> removeEntry(taskId, userId));
+        }
+        currentTaskIds.forEach(taskId -> userIdsByTaskId.compute(taskId, (id, userIds) -> {
+            LongArraySet bucket = userIds == null ? new LongArraySet() : userIds;
+            bucket.add(userId);
+            return bucket;
+        }));
+    }
+
+    @Override
+    public void onRemove(Long userId, UserResponseDTO removed) {
+        if (removed != null && removed.getTaskIds() != null) {
+            removed.getTaskIds().forEach(taskId -> removeEntry(taskId, userId));
+        }
+    }
+
+    private void removeEntry(Long taskId, long userId) {
+        userIdsByTaskId.computeIfPresent(taskId, (id, userIds) -> {
+            userIds.remove(userId);
+            return userIds.isEmpty() ? null : userIds;
+        });
+    }
+
+    // Sorted ids of the cached users listing the task
+    public long[] userIdsForTask(Long taskId) {
+        LongArraySet userIds = userIdsByTaskId.get(taskId);
+        return userIds == null ? new long[0] : userIds.toArray();
+    }
+}
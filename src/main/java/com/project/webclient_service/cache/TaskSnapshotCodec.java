@@ -0,0 +1,30 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+
+public class TaskSnapshotCodec implements SnapshotCodec<TaskResponseDTO> {
+
+    @Override
+    public void write(DataOutput out, TaskResponseDTO task) throws IOException {
+        SnapshotCodec.writeLong(out, task.getTaskId());
+        SnapshotCodec.writeString(out, task.getTaskTitle());
+        SnapshotCodec.writeString(out, task.getTaskDescription());
+        SnapshotCodec.writeDateTime(out, task.getTaskDueDate());
+        SnapshotCodec.writeLong(out, task.getUserId());
+    }
+
+    @Override
+    public TaskResponseDTO read(ByteBuffer in) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(SnapshotCodec.readLong(in));
+        task.setTaskTitle(SnapshotCodec.readString(in));
+        task.setTaskDescription(SnapshotCodec.readString(in));
+        task.setTaskDueDate(SnapshotCodec.readDateTime(in));
+        task.setUserId(SnapshotCodec.readLong(in));
+        return task;
+    }
+}
@@ -0,0 +1,175 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.exception.UpstreamOverloadedException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.reactive.function.client.WebClientRequestException;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+// Puts a shared second level behind a local EntityCache. Entities fetched from the task manager are
+// shared with the other replicas; in cache-first mode a fresh shared entry is used before calling the
+// task manager, and in both modes a shared entry of any age is the fallback when the task manager is
+// unavailable. An entity the task manager no longer knows is dropped from both levels instead.
+// Changes are broadcast so other replicas drop their local copy.
+@Slf4j
+public class TieredCache<V> {
+
+    private final EntityCache<V> local;
+    private final SnapshotCodec<V> codec;
+    private final SharedCacheStore store;
+    private final String keyPrefix;
+    private final String nodeId;
+    private final Duration timeToLive;
+    private final Disposable invalidationSubscription;
+
+    private record SharedEntry<V>(long writtenAtMillis, V value) {
+    }
+
+    public TieredCache(EntityCache<V> local, SnapshotCodec<V> codec, SharedCacheStore store, String keyPrefix,
+                       String nodeId, Duration timeToLive) {
+        this.local = local;
+        this.codec = codec;
+        this.store = store;
+        this.keyPrefix = keyPrefix + ":" + local.getName() + ":";
+        this.nodeId = nodeId;
+        this.timeToLive = timeToLive;
+        this.invalidationSubscription = store.invalidations()
+                .filter(invalidation -> !nodeId.equals(invalidation.origin()) && local.getName().equals(invalidation.cacheName()))
+                .subscribe(invalidation -> {
+                    log.debug("Invalidating {} entry with ID: {} on behalf of node {}", local.getName(), invalidation.id(), invalidation.origin());
+                    local.invalidate(invalidation.id());
+                });
+    }
+
+    // Loads an entity that missed or is stale in the local cache. The backend call must write its result
+    // into the local cache.
+    public Mono<V> load(Long id, Supplier<Mono<V>> backend) {
+        Mono<SharedEntry<V>> shared = readShared(id).cache();
+        Mono<V> fromBackend = Mono.defer(backend)
+                .doOnNext(this::share)
+                .onErrorResume(WebClientResponseException.NotFound.class, e -> {
+                    log.debug("Dropping deleted {} entry with ID: {}", local.getName(), id);
+                    local.evict(id);
+                    publishInvalidation(id);
+                    return Mono.error(e);
+                })
+                .onErrorResume(TieredCache::isUnavailable, error -> shared
+                        .map(entry -> {
+                            log.warn("Serving shared {} entry with ID: {} after failed fetch: {}", local.getName(), id, error.getMessage());
+                            local.put(entry.value());
+                            return entry.value();
+                        })
+                        .switchIfEmpty(Mono.error(error)));
+
+        if (local.getReadMode() == ReadMode.NETWORK_FIRST) {
+            return fromBackend;
+        }
+        return shared
+                .filter(entry -> System.currentTimeMillis() - entry.writtenAtMillis() <= local.getRefreshAfter().toMillis())
+                .map(entry -> {
+                    log.debug("Serving {} entry with ID: {} from the shared cache", local.getName(), id);
+                    local.put(entry.value());
+                    return entry.value();
+                })
+                .switchIfEmpty(fromBackend);
+    }
+
+    // Failures that say nothing about the entity itself, so an older shared copy is better than no answer
+    private static boolean isUnavailable(Throwable error) {
+        return error instanceof WebClientRequestException
+                || error instanceof TimeoutException
+                || error instanceof CallNotPermittedException
+                || error instanceof UpstreamOverloadedException
+                || error instanceof WebClientResponseException response && response.getStatusCode().is5xxServerError();
+    }
+
+    // Shares a freshly fetched entity with the other replicas
+    public void share(V value) {
+        write(value).subscribe();
+    }
+
+    // Shares a changed entity and tells the other replicas to drop their local copy. The broadcast is sent
+    // after the write, so replicas reloading from the shared tier see the new value.
+    public void publishWrite(V value) {
+        Long id = local.getIdExtractor().apply(value);
+        if (id != null) {
+            write(value).then(broadcast(id)).subscribe();
+        }
+    }
+
+    // Drops an entity from the shared tier and from the local cache of every other replica
+    public void publishInvalidation(Long id) {
+        store.delete(key(id))
+                .onErrorResume(error -> {
+                    log.warn("Failed to delete shared {} entry with ID: {}: {}", local.getName(), id, error.getMessage());
+                    return Mono.empty();
+                })
+                .then(broadcast(id))
+                .subscribe();
+    }
+
+    public void dispose() {
+        invalidationSubscription.dispose();
+    }
+
+    private Mono<SharedEntry<V>> readShared(Long id) {
+        return store.get(key(id))
+                .map(this::decode)
+                .onErrorResume(error -> {
+                    log.warn("Failed to read shared {} entry with ID: {}: {}", local.getName(), id, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> write(V value) {
+        Long id = local.getIdExtractor().apply(value);
+        if (id == null) {
+            return Mono.empty();
+        }
+        return Mono.fromCallable(() -> encode(value))
+                .flatMap(bytes -> store.put(key(id), bytes, timeToLive))
+                .onErrorResume(error -> {
+                    log.warn("Failed to write shared {} entry with ID: {}: {}", local.getName(), id, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private Mono<Void> broadcast(Long id) {
+        return store.publish(new CacheInvalidation(nodeId, local.getName(), id))
+                .onErrorResume(error -> {
+                    log.warn("Failed to broadcast invalidation of {} entry with ID: {}: {}", local.getName(), id, error.getMessage());
+                    return Mono.empty();
+                });
+    }
+
+    private String key(Long id) {
+        return keyPrefix + id;
+    }
+
+    private byte[] encode(V value) {
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+        try (DataOutputStream out = new DataOutputStream(bytes)) {
+            out.writeLong(System.currentTimeMillis());
+            codec.write(out, value);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return bytes.toByteArray();
+    }
+
+    private SharedEntry<V> decode(byte[] bytes) {
+        ByteBuffer in = ByteBuffer.wrap(bytes);
+        return new SharedEntry<>(in.getLong(), codec.read(in));
+    }
+}
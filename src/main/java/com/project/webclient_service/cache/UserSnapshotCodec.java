@@ -0,0 +1,47 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.UserResponseDTO;
+
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.HashSet;
+import java.util.Set;
+
+public class UserSnapshotCodec implements SnapshotCodec<UserResponseDTO> {
+
+    @Override
+    public void write(DataOutput out, UserResponseDTO user) throws IOException {
+        SnapshotCodec.writeLong(out, user.getUserId());
+        SnapshotCodec.writeString(out, user.getFullName());
+        SnapshotCodec.writeString(out, user.getUserEmail());
+        SnapshotCodec.writeString(out, user.getRole());
+
+        Set<Long> taskIds = user.getTaskIds();
+        out.writeInt(taskIds == null ? -1 : taskIds.size());
+        if (taskIds != null) {
+            for (Long taskId : taskIds) {
+                out.writeLong(taskId);
+            }
+        }
+    }
+
+    @Override
+    public UserResponseDTO read(ByteBuffer in) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setUserId(SnapshotCodec.readLong(in));
+        user.setFullName(SnapshotCodec.readString(in));
+        user.setUserEmail(SnapshotCodec.readString(in));
+        user.setRole(SnapshotCodec.readString(in));
+
+        int taskCount = in.getInt();
+        if (taskCount >= 0) {
+            Set<Long> taskIds = new HashSet<>(taskCount * 2);
+            for (int i = 0; i < taskCount; i++) {
+                taskIds.add(in.getLong());
+            }
+            user.setTaskIds(taskIds);
+        }
+        return user;
+    }
+}
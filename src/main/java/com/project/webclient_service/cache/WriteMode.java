@@ -0,0 +1,8 @@
+package com.project.webclient_service.cache;
+
+public enum WriteMode {
+    // Successful mutations write the returned entity into the cache
+    WRITE_THROUGH,
+    // Successful mutations only drop the affected entries, the next read fetches them again
+    INVALIDATE
+}
@@ -0,0 +1,128 @@
+package com.project.webclient_service.config;
+
+import com.project.webclient_service.cache.ContentHash;
+import com.project.webclient_service.cache.DeltaSync;
+import com.project.webclient_service.cache.EntityCache;
+import com.project.webclient_service.cache.EntityHashes;
+import com.project.webclient_service.cache.EntityReplica;
+import com.project.webclient_service.cache.ReadMode;
+import com.project.webclient_service.cache.SyncMode;
+import com.project.webclient_service.cache.TaskIndex;
+import com.project.webclient_service.cache.TaskOwnerIndex;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import com.project.webclient_service.upstream.IdempotentRequests;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.function.client.WebClient;
+
+import java.time.Duration;
+
+@Configuration
+public class CacheConfig {
+
+    @Value("${cache.tasks.maximum-size}")
+    private long taskCacheMaximumSize;
+
+    @Value("${cache.tasks.time-to-live}")
+    private Duration taskCacheTimeToLive;
+
+    @Value("${cache.tasks.read-mode}")
+    private ReadMode taskCacheReadMode;
+
+    @Value("${cache.tasks.refresh-after}")
+    private Duration taskCacheRefreshAfter;
+
+    @Value("${cache.users.maximum-size}")
+    private long userCacheMaximumSize;
+
+    @Value("${cache.users.time-to-live}")
+    private Duration userCacheTimeToLive;
+
+    @Value("${cache.users.read-mode}")
+    private ReadMode userCacheReadMode;
+
+    @Value("${cache.users.refresh-after}")
+    private Duration userCacheRefreshAfter;
+
+    @Value("${cache.delta-sync.mode}")
+    private SyncMode syncMode;
+
+    @Value("${cache.delta-sync.interval}")
+    private Duration syncInterval;
+
+    @Value("${cache.delta-sync.max-fetches}")
+    private int syncMaxFetches;
+
+    @Value("${cache.delta-sync.concurrency}")
+    private int syncConcurrency;
+
+    // The index is registered before the cache is published, so entries restored from a snapshot are indexed too
+    @Bean
+    public EntityCache<TaskResponseDTO> taskCache(TaskIndex taskIndex, ContentHash<TaskResponseDTO> taskContentHash) {
+        EntityCache<TaskResponseDTO> taskCache = new EntityCache<>("taskCache", TaskResponseDTO::getTaskId,
+                taskCacheMaximumSize, taskCacheTimeToLive, taskCacheReadMode, taskCacheRefreshAfter);
+        taskCache.addListener(taskIndex);
+        taskCache.addListener(taskContentHash);
+        return taskCache;
+    }
+
+    @Bean
+    public TaskIndex taskIndex() {
+        return new TaskIndex();
+    }
+
+    // Hash of the cached entries, the ETag of listings served from the cache
+    @Bean
+    public ContentHash<TaskResponseDTO> taskContentHash() {
+        return new ContentHash<>(EntityHashes::task);
+    }
+
+    // Full listing kept by delta synchronization, unused while cache.delta-sync.mode is off
+    @Bean
+    public EntityReplica<TaskResponseDTO> taskReplica() {
+        return new EntityReplica<>(TaskResponseDTO::getTaskId, EntityHashes::task);
+    }
+
+    @Bean
+    public DeltaSync<TaskResponseDTO> taskDeltaSync(EntityReplica<TaskResponseDTO> taskReplica, EntityCache<TaskResponseDTO> taskCache,
+                                                    ContentHash<TaskResponseDTO> taskContentHash, WebClient webClient,
+                                                    IdempotentRequests idempotentRequests) {
+        return new DeltaSync<>("/task-api", "task", TaskResponseDTO.class, taskReplica, taskCache, taskContentHash,
+                webClient, idempotentRequests, syncMode, syncInterval, syncMaxFetches, syncConcurrency);
+    }
+
+    @Bean
+    public EntityCache<UserResponseDTO> userCache(TaskOwnerIndex taskOwnerIndex, ContentHash<UserResponseDTO> userContentHash) {
+        EntityCache<UserResponseDTO> userCache = new EntityCache<>("userCache", UserResponseDTO::getUserId,
+                userCacheMaximumSize, userCacheTimeToLive, userCacheReadMode, userCacheRefreshAfter);
+        userCache.addListener(taskOwnerIndex);
+        userCache.addListener(userContentHash);
+        return userCache;
+    }
+
+    // Owners of tasks by task id, so task writes find the previous owner without scanning the users
+    @Bean
+    public TaskOwnerIndex taskOwnerIndex() {
+        return new TaskOwnerIndex();
+    }
+
+    @Bean
+    public ContentHash<UserResponseDTO> userContentHash() {
+        return new ContentHash<>(EntityHashes::user);
+    }
+
+    @Bean
+    public EntityReplica<UserResponseDTO> userReplica() {
+        return new EntityReplica<>(UserResponseDTO::getUserId, EntityHashes::user);
+    }
+
+    @Bean
+    public DeltaSync<UserResponseDTO> userDeltaSync(EntityReplica<UserResponseDTO> userReplica, EntityCache<UserResponseDTO> userCache,
+                                                    ContentHash<UserResponseDTO> userContentHash, WebClient webClient,
+                                                    IdempotentRequests idempotentRequests) {
+        return new DeltaSync<>("/user-api", "user", UserResponseDTO.class, userReplica, userCache, userContentHash,
+                webClient, idempotentRequests, syncMode, syncInterval, syncMaxFetches, syncConcurrency);
+    }
+}
@@ -0,0 +1,65 @@
+package com.project.webclient_service.config;
+
+import com.project.webclient_service.cache.EntityCache;
+import com.project.webclient_service.cache.InProcessSharedCacheStore;
+import com.project.webclient_service.cache.NoopSharedCacheStore;
+import com.project.webclient_service.cache.RedisSharedCacheStore;
+import com.project.webclient_service.cache.SharedCacheStore;
+import com.project.webclient_service.cache.TaskSnapshotCodec;
+import com.project.webclient_service.cache.TieredCache;
+import com.project.webclient_service.cache.UserSnapshotCodec;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.data.redis.connection.ReactiveRedisConnectionFactory;
+
+import java.time.Duration;
+import java.util.UUID;
+
+@Configuration
+@Slf4j
+public class SharedCacheConfig {
+
+    // Identifies this replica in invalidation broadcasts
+    private final String nodeId = UUID.randomUUID().toString();
+
+    @Value("${cache.shared.key-prefix}")
+    private String keyPrefix;
+
+    @Value("${cache.shared.time-to-live}")
+    private Duration timeToLive;
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.shared.type", havingValue = "none", matchIfMissing = true)
+    public SharedCacheStore noopSharedCacheStore() {
+        return new NoopSharedCacheStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.shared.type", havingValue = "in-process")
+    public SharedCacheStore inProcessSharedCacheStore() {
+        log.info("Using the in-process shared cache tier");
+        return new InProcessSharedCacheStore();
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "cache.shared.type", havingValue = "redis")
+    public SharedCacheStore redisSharedCacheStore(ReactiveRedisConnectionFactory connectionFactory) {
+        log.info("Using the Redis shared cache tier with key prefix '{}' as node {}", keyPrefix, nodeId);
+        return new RedisSharedCacheStore(connectionFactory, keyPrefix);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public TieredCache<TaskResponseDTO> sharedTaskCache(EntityCache<TaskResponseDTO> taskCache, SharedCacheStore sharedCacheStore) {
+        return new TieredCache<>(taskCache, new TaskSnapshotCodec(), sharedCacheStore, keyPrefix, nodeId, timeToLive);
+    }
+
+    @Bean(destroyMethod = "dispose")
+    public TieredCache<UserResponseDTO> sharedUserCache(EntityCache<UserResponseDTO> userCache, SharedCacheStore sharedCacheStore) {
+        return new TieredCache<>(userCache, new UserSnapshotCodec(), sharedCacheStore, keyPrefix, nodeId, timeToLive);
+    }
+}
@@ -1,20 +1,125 @@
 package com.project.webclient_service.config;
 
+import com.project.webclient_service.upstream.DeadlinePropagation;
+import com.project.webclient_service.upstream.RouteConcurrencyLimiter;
+import com.project.webclient_service.upstream.WireFormat;
+import io.netty.channel.ChannelOption;
+import io.netty.handler.timeout.ReadTimeoutHandler;
+import io.netty.handler.timeout.WriteTimeoutHandler;
 import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.MediaType;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.netty.http.HttpProtocol;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
 
 @Configuration
 public class WebClientConfig {
 
+    public static final String CONNECTION_POOL_NAME = "taskManager";
+
     @Value("${main.url}")
     private String mainUrl;
 
-    @Bean
-    public WebClient webClient() {
-        return WebClient.create(mainUrl);
+    @Value("${webclient.pool.max-connections}")
+    private int maxConnections;
+
+    @Value("${webclient.pool.pending-acquire-max-count}")
+    private int pendingAcquireMaxCount;
+
+    @Value("${webclient.pool.pending-acquire-timeout}")
+    private Duration pendingAcquireTimeout;
+
+    @Value("${webclient.pool.max-idle-time}")
+    private Duration maxIdleTime;
+
+    @Value("${webclient.pool.max-life-time}")
+    private Duration maxLifeTime;
+
+    @Value("${webclient.pool.evict-in-background}")
+    private Duration evictInBackground;
+
+    @Value("${webclient.connect-timeout}")
+    private Duration connectTimeout;
+
+    @Value("${webclient.response-timeout}")
+    private Duration responseTimeout;
+
+    @Value("${webclient.read-timeout}")
+    private Duration readTimeout;
+
+    @Value("${webclient.write-timeout}")
+    private Duration writeTimeout;
+
+    @Value("${webclient.protocols}")
+    private HttpProtocol[] protocols;
+
+    @Value("${webclient.compression}")
+    private boolean compression;
+
+    @Value("${webclient.wire-format}")
+    private WireFormat wireFormat;
+
+    // Dedicated pool for task manager traffic, its gauges are published under reactor.netty.connection.provider
+    @Bean(destroyMethod = "dispose")
+    public ConnectionProvider taskManagerConnectionProvider() {
+        return ConnectionProvider.builder(CONNECTION_POOL_NAME)
+                .maxConnections(maxConnections)
+                .pendingAcquireMaxCount(pendingAcquireMaxCount)
+                .pendingAcquireTimeout(pendingAcquireTimeout)
+                .maxIdleTime(maxIdleTime)
+                .maxLifeTime(maxLifeTime)
+                .evictInBackground(evictInBackground)
+                .metrics(true)
+                .build();
     }
-}
 
+    @Bean
+    public WebClient webClient(WebClient.Builder webClientBuilder, ConnectionProvider taskManagerConnectionProvider,
+                               DeadlinePropagation deadlinePropagation, RouteConcurrencyLimiter routeConcurrencyLimiter) {
+        HttpClient httpClient = HttpClient.create(taskManagerConnectionProvider)
+                .protocol(protocols)
+                .option(ChannelOption.CONNECT_TIMEOUT_MILLIS, (int) connectTimeout.toMillis())
+                .option(ChannelOption.SO_KEEPALIVE, true)
+                .responseTimeout(responseTimeout)
+                .compress(compression)
+                .doOnConnected(connection -> connection
+                        .addHandlerLast(new ReadTimeoutHandler(readTimeout.toMillis(), TimeUnit.MILLISECONDS))
+                        .addHandlerLast(new WriteTimeoutHandler(writeTimeout.toMillis(), TimeUnit.MILLISECONDS)));
+
+        webClientBuilder
+                .baseUrl(mainUrl)
+                .clientConnector(new ReactorClientHttpConnector(httpClient))
+                // Outermost, so calls past their deadline never take a concurrency slot
+                .filter(deadlinePropagation)
+                .filter(routeConcurrencyLimiter);
+        if (wireFormat == WireFormat.SMILE) {
+            webClientBuilder
+                    .defaultHeaders(headers -> headers.setAccept(List.of(CodecConfig.APPLICATION_SMILE, MediaType.APPLICATION_JSON)))
+                    .filter(smileRequestBodies());
+        }
+        return webClientBuilder.build();
+    }
 
+    // The body is written after the filters ran, so the content type set here selects the Smile encoder
+    private static ExchangeFilterFunction smileRequestBodies() {
+        return (request, next) -> {
+            if (request.method() != HttpMethod.POST && request.method() != HttpMethod.PUT) {
+                return next.exchange(request);
+            }
+            return next.exchange(ClientRequest.from(request)
+                    .headers(headers -> headers.setContentType(CodecConfig.APPLICATION_SMILE))
+                    .build());
+        };
+    }
+}
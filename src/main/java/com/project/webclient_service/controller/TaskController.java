@@ -1,14 +1,24 @@
 package com.project.webclient_service.controller;
 
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.dto.TaskPageRequestDTO;
 import com.project.webclient_service.dto.TaskRequestDTO;
 import com.project.webclient_service.dto.TaskResponseDTO;
 import com.project.webclient_service.service.TaskService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @RestController
@@ -20,36 +30,101 @@ public class TaskController {
     private final TaskService taskService;
 
     @GetMapping("get-task")
-    public ResponseEntity<Mono<TaskResponseDTO>> getTaskById(@RequestParam Long id) {
-        log.info("Received request to get task by ID: {}", id);
-        return ResponseEntity.ok(taskService.getTaskById(id));
+    public Mono<ResponseEntity<TaskResponseDTO>> getTaskById(@RequestParam Long id) {
+        log.debug("Received request to get task by ID: {}", id);
+        return taskService.getTaskById(id).map(ResponseEntity::ok);
     }
 
 
+    // Tagged with a weak ETag of the listing, Spring answers a matching If-None-Match with 304 and no body.
+    // JSON and Smile bodies share the tag, so caches have to key them by Accept.
     @GetMapping("get-tasks")
-    public ResponseEntity<Mono<List<TaskResponseDTO>>> getAllTasks() {
-        log.info("Received request to get all tasks");
-        return ResponseEntity.ok(taskService.getAllTasks());
+    public Mono<ResponseEntity<List<TaskResponseDTO>>> getAllTasks() {
+        log.debug("Received request to get all tasks");
+        return taskService.getTaskListing().map(listing -> ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(listing.etag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(listing.values()));
+    }
+
+
+    // Streams tasks as they arrive from the task manager, as NDJSON or as a streamed JSON array
+    @GetMapping(value = "stream-tasks", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Flux<TaskResponseDTO>> streamAllTasks() {
+        log.debug("Received request to stream all tasks");
+        return ResponseEntity.ok(taskService.streamAllTasks());
+    }
+
+
+    @GetMapping("get-tasks-page")
+    public Mono<ResponseEntity<PageResponseDTO<TaskResponseDTO>>> getTasksPage(@ParameterObject TaskPageRequestDTO request) {
+        log.debug("Received request to get a page of tasks");
+        return taskService.getTasksPage(request).map(ResponseEntity::ok);
+    }
+
+
+    @GetMapping("get-tasks-by-user/{userId}")
+    public Mono<ResponseEntity<List<TaskResponseDTO>>> getTasksByUserId(@PathVariable Long userId) {
+        log.debug("Received request to get tasks for user ID: {}", userId);
+        return taskService.getTasksByUserId(userId).map(ResponseEntity::ok);
+    }
+
+
+    @GetMapping("get-tasks-due")
+    public Mono<ResponseEntity<List<TaskResponseDTO>>> getTasksDueBetween(
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime to) {
+        log.debug("Received request to get tasks due from: {} to: {}", from, to);
+        return taskService.getTasksDueBetween(from, to).map(ResponseEntity::ok);
     }
 
 
     @PostMapping("create-task")
-    public ResponseEntity<Mono<TaskResponseDTO>> createTask(@RequestBody TaskRequestDTO taskRequestDTO) {
-        log.info("Received request to create a task with title: {}", taskRequestDTO.getTaskTitle());
-        return ResponseEntity.ok(taskService.createTask(taskRequestDTO));
+    public Mono<ResponseEntity<TaskResponseDTO>> createTask(@RequestBody TaskRequestDTO taskRequestDTO) {
+        log.debug("Received request to create a task with title: {}", taskRequestDTO.getTaskTitle());
+        return taskService.createTask(taskRequestDTO).map(ResponseEntity::ok);
     }
 
 
     @PutMapping("update-task")
-    public ResponseEntity<Mono<TaskResponseDTO>> updateTask(@RequestBody TaskRequestDTO taskRequestDTO) {
-        log.info("Received request to update a task with ID: {} and title: {}", taskRequestDTO.getTaskId(), taskRequestDTO.getTaskTitle());
-        return ResponseEntity.ok(taskService.updateTask(taskRequestDTO));
+    public Mono<ResponseEntity<TaskResponseDTO>> updateTask(@RequestBody TaskRequestDTO taskRequestDTO) {
+        log.debug("Received request to update a task with ID: {} and title: {}", taskRequestDTO.getTaskId(), taskRequestDTO.getTaskTitle());
+        return taskService.updateTask(taskRequestDTO).map(ResponseEntity::ok);
     }
 
 
     @DeleteMapping("delete-task/{id}")
-    public ResponseEntity<Mono<Void>> deleteTask(@PathVariable Long id) {
-        log.info("Received request to delete task with ID: {}", id);
-        return ResponseEntity.ok(taskService.deleteTask(id));
+    public Mono<ResponseEntity<Void>> deleteTask(@PathVariable Long id) {
+        log.debug("Received request to delete task with ID: {}", id);
+        return taskService.deleteTask(id).then(Mono.just(ResponseEntity.ok().<Void>build()));
+    }
+
+
+    @PostMapping("batch-get-tasks")
+    public Mono<ResponseEntity<BatchResponseDTO<TaskResponseDTO>>> getTasksBatch(@RequestBody List<Long> ids) {
+        log.debug("Received request to get {} tasks in a batch", ids.size());
+        return taskService.getTasksBatch(ids).map(ResponseEntity::ok);
+    }
+
+
+    @PostMapping("batch-create-tasks")
+    public Mono<ResponseEntity<BatchResponseDTO<TaskResponseDTO>>> createTasksBatch(@RequestBody List<TaskRequestDTO> taskRequestDTOs) {
+        log.debug("Received request to create {} tasks in a batch", taskRequestDTOs.size());
+        return taskService.createTasksBatch(taskRequestDTOs).map(ResponseEntity::ok);
+    }
+
+
+    @PutMapping("batch-update-tasks")
+    public Mono<ResponseEntity<BatchResponseDTO<TaskResponseDTO>>> updateTasksBatch(@RequestBody List<TaskRequestDTO> taskRequestDTOs) {
+        log.debug("Received request to update {} tasks in a batch", taskRequestDTOs.size());
+        return taskService.updateTasksBatch(taskRequestDTOs).map(ResponseEntity::ok);
+    }
+
+
+    @PostMapping("batch-delete-tasks")
+    public Mono<ResponseEntity<BatchResponseDTO<Void>>> deleteTasksBatch(@RequestBody List<Long> ids) {
+        log.debug("Received request to delete {} tasks in a batch", ids.size());
+        return taskService.deleteTasksBatch(ids).map(ResponseEntity::ok);
     }
 }
\ No newline at end of file
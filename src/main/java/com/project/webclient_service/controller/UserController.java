@@ -1,12 +1,21 @@
 package com.project.webclient_service.controller;
 
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.dto.UserPageRequestDTO;
 import com.project.webclient_service.dto.UserRequestDTO;
 import com.project.webclient_service.dto.UserResponseDTO;
+import com.project.webclient_service.dto.UserWithTasksDTO;
 import com.project.webclient_service.service.UserService;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springdoc.core.annotations.ParameterObject;
+import org.springframework.http.CacheControl;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -19,37 +28,94 @@ public class UserController {
 
     private final UserService userService;
 
+    // Tagged with a weak ETag of the listing, Spring answers a matching If-None-Match with 304 and no body.
+    // JSON and Smile bodies share the tag, so caches have to key them by Accept.
     @GetMapping("get-users")
-    public ResponseEntity<Mono<List<UserResponseDTO>>> getAllUsers() {
-        log.info("Received request to get all users");
-        return ResponseEntity.ok(userService.getAllUsers());
+    public Mono<ResponseEntity<List<UserResponseDTO>>> getAllUsers() {
+        log.debug("Received request to get all users");
+        return userService.getUserListing().map(listing -> ResponseEntity.ok()
+                .cacheControl(CacheControl.noCache())
+                .eTag(listing.etag())
+                .varyBy(HttpHeaders.ACCEPT)
+                .body(listing.values()));
+    }
+
+
+    // Streams users as they arrive from the task manager, as NDJSON or as a streamed JSON array
+    @GetMapping(value = "stream-users", produces = {MediaType.APPLICATION_NDJSON_VALUE, MediaType.APPLICATION_JSON_VALUE})
+    public ResponseEntity<Flux<UserResponseDTO>> streamAllUsers() {
+        log.debug("Received request to stream all users");
+        return ResponseEntity.ok(userService.streamAllUsers());
+    }
+
+
+    @GetMapping("get-users-page")
+    public Mono<ResponseEntity<PageResponseDTO<UserResponseDTO>>> getUsersPage(@ParameterObject UserPageRequestDTO request) {
+        log.debug("Received request to get a page of users");
+        return userService.getUsersPage(request).map(ResponseEntity::ok);
     }
 
 
     @GetMapping("get-user/{id}")
-    public ResponseEntity<Mono<UserResponseDTO>> getUserById(@PathVariable Long id) {
-        log.info("Received request to get user by ID: {}", id);
-        return ResponseEntity.ok(userService.getUserById(id));
+    public Mono<ResponseEntity<UserResponseDTO>> getUserById(@PathVariable Long id) {
+        log.debug("Received request to get user by ID: {}", id);
+        return userService.getUserById(id).map(ResponseEntity::ok);
+    }
+
+
+    // Resolves the user and all of their tasks in one call instead of one call per task
+    @GetMapping("get-user-with-tasks/{id}")
+    public Mono<ResponseEntity<UserWithTasksDTO>> getUserWithTasks(@PathVariable Long id) {
+        log.debug("Received request to get user with tasks by ID: {}", id);
+        return userService.getUserWithTasks(id).map(ResponseEntity::ok);
     }
 
 
     @PostMapping("create-user")
-    public ResponseEntity<Mono<UserResponseDTO>> createUser(@RequestBody UserRequestDTO userRequestDTO) {
-        log.info("Received request to create user with email: {}", userRequestDTO.getUserEmail());
-        return ResponseEntity.ok(userService.createUser(userRequestDTO));
+    public Mono<ResponseEntity<UserResponseDTO>> createUser(@RequestBody UserRequestDTO userRequestDTO) {
+        log.debug("Received request to create user with email: {}", userRequestDTO.getUserEmail());
+        return userService.createUser(userRequestDTO).map(ResponseEntity::ok);
     }
 
 
     @PutMapping("update-user")
-    public ResponseEntity<Mono<UserResponseDTO>> updateUser(@RequestBody UserRequestDTO userRequestDTO) {
-        log.info("Received request to update user with ID: {} and email: {}", userRequestDTO.getUserId(), userRequestDTO.getUserEmail());
-        return ResponseEntity.ok(userService.updateUser(userRequestDTO));
+    public Mono<ResponseEntity<UserResponseDTO>> updateUser(@RequestBody UserRequestDTO userRequestDTO) {
+        log.debug("Received request to update user with ID: {} and email: {}", userRequestDTO.getUserId(), userRequestDTO.getUserEmail());
+        return userService.updateUser(userRequestDTO).map(ResponseEntity::ok);
     }
 
 
     @DeleteMapping("delete-user/{id}")
-    public ResponseEntity<Mono<Void>> deleteUser(@PathVariable Long id) {
-        log.info("Received request to delete user with ID: {}", id);
-        return ResponseEntity.ok(userService.deleteUser(id));
+    public Mono<ResponseEntity<Void>> deleteUser(@PathVariable Long id) {
+        log.debug("Received request to delete user with ID: {}", id);
+        return userService.deleteUser(id).then(Mono.just(ResponseEntity.ok().<Void>build()));
+    }
+
+
+    @PostMapping("batch-get-users")
+    public Mono<ResponseEntity<BatchResponseDTO<UserResponseDTO>>> getUsersBatch(@RequestBody List<Long> ids) {
+        log.debug("Received request to get {} users in a batch", ids.size());
+        return userService.getUsersBatch(ids).map(ResponseEntity::ok);
+    }
+
+
+    @PostMapping("batch-create-users")
+    public Mono<ResponseEntity<BatchResponseDTO<UserResponseDTO>>> createUsersBatch(@RequestBody List<UserRequestDTO> userRequestDTOs) {
+        log.debug("Received request to create {} users in a batch", userRequestDTOs.size());
+        return userService.createUsersBatch(userRequestDTOs).map(ResponseEntity::ok);
+    }
+
+
+    @PutMapping("batch-update-users")
+    public Mono<ResponseEntity<BatchResponseDTO<UserResponseDTO>>> updateUsersBatch(@RequestBody List<UserRequestDTO> userRequestDTOs) {
+        log.debug("Received request to update {} users in a batch", userRequestDTOs.size());
+        return userService.updateUsersBatch(userRequestDTOs).map(ResponseEntity::ok);
+    }
+
+
+    @PostMapping("batch-delete-users")
+    public Mono<ResponseEntity<BatchResponseDTO<Void>>> deleteUsersBatch(@RequestBody List<Long> ids) {
+        log.debug("Received request to delete {} users in a batch", ids.size());
+        return userService.deleteUsersBatch(ids).map(ResponseEntity::ok);
     }
 }
\ No newline at end of file
@@ -0,0 +1,15 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class BatchItemResultDTO<T> {
+    // Position of the item in the batch request
+    private int index;
+    private Long id;
+    private boolean success;
+    private T data;
+    private String error;
+}
@@ -0,0 +1,14 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class BatchResponseDTO<T> {
+    private List<BatchItemResultDTO<T>> results;
+    private int succeeded;
+    private int failed;
+}
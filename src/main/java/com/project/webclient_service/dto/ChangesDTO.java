@@ -0,0 +1,16 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class ChangesDTO<T> {
+    // Entities created or updated since the requested watermark, all entities without one
+    private List<T> changed;
+    private List<Long> deletedIds;
+    // Watermark to request the next changes with
+    private String watermark;
+}
@@ -0,0 +1,12 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class DigestEntryDTO {
+    private Long id;
+    // Opaque version or content hash, changes whenever the entity changes
+    private String version;
+}
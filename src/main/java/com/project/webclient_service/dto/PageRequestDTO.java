@@ -0,0 +1,15 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class PageRequestDTO {
+    private String sortBy;
+    private String direction = "asc";
+    private int page = 0;
+    private int size = 50;
+    // Opaque cursor returned as nextCursor by the previous page, takes precedence over page
+    private String cursor;
+}
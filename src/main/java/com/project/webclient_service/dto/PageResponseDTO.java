@@ -0,0 +1,16 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+
+@Getter
+@Setter
+public class PageResponseDTO<T> {
+    private List<T> items;
+    private int size;
+    private long totalElements;
+    // Cursor for the following page, null on the last page
+    private String nextCursor;
+}
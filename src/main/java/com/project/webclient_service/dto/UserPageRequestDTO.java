@@ -0,0 +1,10 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+@Getter
+@Setter
+public class UserPageRequestDTO extends PageRequestDTO {
+    private String role;
+}
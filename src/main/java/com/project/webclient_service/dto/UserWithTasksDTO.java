@@ -0,0 +1,19 @@
+package com.project.webclient_service.dto;
+
+import lombok.Getter;
+import lombok.Setter;
+
+import java.util.List;
+import java.util.Set;
+
+@Getter
+@Setter
+public class UserWithTasksDTO {
+    private Long userId;
+    private String fullName;
+    private String userEmail;
+    private String role;
+    private List<TaskResponseDTO> tasks;
+    // Task ids that could not be resolved from the cache or the task manager
+    private Set<Long> unresolvedTaskIds;
+}
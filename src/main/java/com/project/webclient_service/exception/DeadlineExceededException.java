@@ -0,0 +1,18 @@
+package com.project.webclient_service.exception;
+
+import lombok.Getter;
+
+import java.util.concurrent.TimeoutException;
+
+// The request's deadline passed, or would pass, before the task manager answered. The upstream call has
+// been cancelled, or was never made.
+@Getter
+public class DeadlineExceededException extends TimeoutException {
+
+    private final String route;
+
+    public DeadlineExceededException(String route) {
+        super("Request deadline exceeded for " + route);
+        this.route = route;
+    }
+}
@@ -0,0 +1,10 @@
+package com.project.webclient_service.exception;
+
+// A request the client has to change before retrying, e.g. an unknown sort field, a malformed cursor or
+// an oversized batch. Answered with 400 and its message.
+public class InvalidRequestException extends RuntimeException {
+
+    public InvalidRequestException(String message) {
+        super(message);
+    }
+}
@@ -0,0 +1,17 @@
+package com.project.webclient_service.exception;
+
+import lombok.Getter;
+
+// Thrown without calling the task manager when a route is at its concurrency limit
+@Getter
+public class UpstreamOverloadedException extends RuntimeException {
+
+    private final String route;
+    private final int limit;
+
+    public UpstreamOverloadedException(String route, int limit) {
+        super("Concurrency limit of " + limit + " reached for " + route);
+        this.route = route;
+        this.limit = limit;
+    }
+}
@@ -1,17 +1,35 @@
 package com.project.webclient_service.service;
 
+import com.project.webclient_service.cache.Listing;
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.dto.TaskPageRequestDTO;
 import com.project.webclient_service.dto.TaskRequestDTO;
 import com.project.webclient_service.dto.TaskResponseDTO;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
 import java.util.List;
 
 @Service
 public interface TaskService {
     Mono<List<TaskResponseDTO>> getAllTasks();
+    // The full listing with its weak ETag
+    Mono<Listing<TaskResponseDTO>> getTaskListing();
+    Flux<TaskResponseDTO> streamAllTasks();
+    Mono<PageResponseDTO<TaskResponseDTO>> getTasksPage(TaskPageRequestDTO request);
+    Mono<List<TaskResponseDTO>> getTasksByUserId(Long userId);
+    Mono<List<TaskResponseDTO>> getTasksDueBetween(LocalDateTime dueFrom, LocalDateTime dueTo);
     Mono<TaskResponseDTO> getTaskById(Long taskId);
     Mono<TaskResponseDTO> createTask(TaskRequestDTO taskRequestDTO);
     Mono<TaskResponseDTO> updateTask(TaskRequestDTO taskRequestDTO);
     Mono<Void> deleteTask(Long taskId);
+    Mono<BatchResponseDTO<TaskResponseDTO>> getTasksBatch(List<Long> taskIds);
+    // Loads the tasks without consulting the local cache, e.g. to refresh stale entries
+    Mono<BatchResponseDTO<TaskResponseDTO>> refreshTasksBatch(List<Long> taskIds);
+    Mono<BatchResponseDTO<TaskResponseDTO>> createTasksBatch(List<TaskRequestDTO> taskRequestDTOs);
+    Mono<BatchResponseDTO<TaskResponseDTO>> updateTasksBatch(List<TaskRequestDTO> taskRequestDTOs);
+    Mono<BatchResponseDTO<Void>> deleteTasksBatch(List<Long> taskIds);
 }
\ No newline at end of file
@@ -1,8 +1,14 @@
 package com.project.webclient_service.service;
 
+import com.project.webclient_service.cache.Listing;
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.dto.UserPageRequestDTO;
 import com.project.webclient_service.dto.UserRequestDTO;
 import com.project.webclient_service.dto.UserResponseDTO;
+import com.project.webclient_service.dto.UserWithTasksDTO;
 import org.springframework.stereotype.Service;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
@@ -10,8 +16,19 @@ import java.util.List;
 @Service
 public interface UserService {
     Mono<List<UserResponseDTO>> getAllUsers();
+    // The full listing with its weak ETag
+    Mono<Listing<UserResponseDTO>> getUserListing();
+    Flux<UserResponseDTO> streamAllUsers();
+    Mono<PageResponseDTO<UserResponseDTO>> getUsersPage(UserPageRequestDTO request);
     Mono<UserResponseDTO> getUserById(Long userId);
+    Mono<UserWithTasksDTO> getUserWithTasks(Long userId);
     Mono<UserResponseDTO> createUser(UserRequestDTO userRequestDTO);
     Mono<UserResponseDTO> updateUser(UserRequestDTO userRequestDTO);
     Mono<Void> deleteUser(Long userId);
+    Mono<BatchResponseDTO<UserResponseDTO>> getUsersBatch(List<Long> userIds);
+    // Loads the users without consulting the local cache, e.g. to refresh stale entries
+    Mono<BatchResponseDTO<UserResponseDTO>> refreshUsersBatch(List<Long> userIds);
+    Mono<BatchResponseDTO<UserResponseDTO>> createUsersBatch(List<UserRequestDTO> userRequestDTOs);
+    Mono<BatchResponseDTO<UserResponseDTO>> updateUsersBatch(List<UserRequestDTO> userRequestDTOs);
+    Mono<BatchResponseDTO<Void>> deleteUsersBatch(List<Long> userIds);
 }
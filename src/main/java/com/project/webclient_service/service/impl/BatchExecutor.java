@@ -0,0 +1,67 @@
+package com.project.webclient_service.service.impl;
+
+import com.project.webclient_service.dto.BatchItemResultDTO;
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.exception.InvalidRequestException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.List;
+import java.util.function.Function;
+
+// Fans a batch out to per-item operations with bounded concurrency and collects per-item results,
+// so one failing item does not fail the whole batch
+@Component
+@Slf4j
+public class BatchExecutor {
+
+    @Value("${batch.concurrency}")
+    private int concurrency;
+
+    @Value("${batch.max-size}")
+    private int maxSize;
+
+    public int getMaxSize() {
+        return maxSize;
+    }
+
+    public <I, T> Mono<BatchResponseDTO<T>> execute(List<I> items, Function<I, Long> idExtractor, Function<I, Mono<T>> operation) {
+        if (items.size() > maxSize) {
+            return Mono.error(new InvalidRequestException("Batch of " + items.size() + " items exceeds the maximum of " + maxSize));
+        }
+
+        log.debug("Executing batch of {} items with concurrency {}", items.size(), concurrency);
+        return Flux.range(0, items.size())
+                .flatMapSequential(index -> executeItem(index, items.get(index), idExtractor, operation), concurrency)
+                .collectList()
+                .map(BatchExecutor::toResponse);
+    }
+
+    private <I, T> Mono<BatchItemResultDTO<T>> executeItem(int index, I item, Function<I, Long> idExtractor, Function<I, Mono<T>> operation) {
+        BatchItemResultDTO<T> result = new BatchItemResultDTO<>();
+        result.setIndex(index);
+        result.setId(item == null ? null : idExtractor.apply(item));
+
+        return Mono.defer(() -> operation.apply(item))
+                .doOnNext(result::setData)
+                .then(Mono.fromSupplier(() -> {
+                    result.setSuccess(true);
+                    return result;
+                }))
+                .onErrorResume(error -> {
+                    result.setError(error.getMessage());
+                    return Mono.just(result);
+                });
+    }
+
+    private static <T> BatchResponseDTO<T> toResponse(List<BatchItemResultDTO<T>> results) {
+        BatchResponseDTO<T> response = new BatchResponseDTO<>();
+        response.setResults(results);
+        response.setSucceeded((int) results.stream().filter(BatchItemResultDTO::isSuccess).count());
+        response.setFailed(results.size() - response.getSucceeded());
+        return response;
+    }
+}
@@ -0,0 +1,101 @@
+package com.project.webclient_service.service.impl;
+
+import com.project.webclient_service.cache.EntityCache;
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import com.project.webclient_service.service.TaskService;
+import com.project.webclient_service.service.UserService;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.Function;
+
+// Fills the caches at startup and keeps them warm afterwards: every run reloads the task and user
+// listings and then refreshes the most frequently read ids whose entries are no longer fresh. Runs are
+// delayed by a random jitter so replicas do not hit the task manager together, and skipped while the
+// circuit breaker is open.
+@Component
+@ConditionalOnProperty(name = "cache.warm-up.enabled", havingValue = "true")
+@RequiredArgsConstructor
+@Slf4j
+public class CacheWarmer {
+
+    private final TaskService taskService;
+    private final UserService userService;
+    private final EntityCache<TaskResponseDTO> taskCache;
+    private final EntityCache<UserResponseDTO> userCache;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Value("${cache.warm-up.jitter}")
+    private Duration jitter;
+
+    @Value("${cache.warm-up.hot-entries}")
+    private int hotEntries;
+
+    // Ids refreshed at the same time, the batch concurrency applies within each group
+    @Value("${cache.warm-up.concurrency}")
+    private int concurrency;
+
+    @Scheduled(initialDelayString = "${cache.warm-up.initial-delay}", fixedDelayString = "${cache.warm-up.interval}")
+    public Mono<Void> warmUp() {
+        return Mono.delay(Duration.ofMillis(ThreadLocalRandom.current().nextLong(jitter.toMillis() + 1)))
+                .then(Mono.defer(() -> {
+                    CircuitBreaker.State state = circuitBreakerRegistry
+                            .circuitBreaker(TaskServiceImpl.CIRCUIT_BREAKER_SERVICE).getState();
+                    if (state == CircuitBreaker.State.OPEN || state == CircuitBreaker.State.FORCED_OPEN) {
+                        log.info("Skipping cache warm-up while the circuit breaker is {}", state);
+                        return Mono.empty();
+                    }
+
+                    long started = System.nanoTime();
+                    return warmListing("tasks", taskService.getAllTasks())
+                            .then(warmListing("users", userService.getAllUsers()))
+                            .then(refreshHottest(taskCache, taskService::refreshTasksBatch))
+                            .then(refreshHottest(userCache, userService::refreshUsersBatch))
+                            .doOnSuccess(ignored -> log.info("Cache warm-up finished in {} ms, {} tasks and {} users cached",
+                                    Duration.ofNanos(System.nanoTime() - started).toMillis(), taskCache.size(), userCache.size()));
+                }));
+    }
+
+    private Mono<Void> warmListing(String entities, Mono<? extends List<?>> listing) {
+        return listing
+                .doOnNext(values -> log.info("Cache warm-up loaded {} {}", values.size(), entities))
+                .onErrorResume(error -> {
+                    log.warn("Cache warm-up could not load {}: {}", entities, error.getMessage());
+                    return Mono.empty();
+                })
+                .then();
+    }
+
+    // Only hot entries close to expiry or evicted by the listing reload reach the task manager. Freshness
+    // is checked without reading the entries, the warm-up must not count as hits or raise their frequency.
+    private <V> Mono<Void> refreshHottest(EntityCache<V> cache, Function<List<Long>, Mono<BatchResponseDTO<V>>> batchRefresh) {
+        return Mono.defer(() -> {
+            List<Long> hottestIds = cache.hottestIds(hotEntries);
+            List<Long> staleIds = hottestIds.stream()
+                    .filter(id -> !cache.isFresh(id))
+                    .toList();
+            return Flux.fromIterable(staleIds)
+                    .buffer(concurrency)
+                    .concatMap(batchRefresh)
+                    .reduce(0, (failed, response) -> failed + response.getFailed())
+                    .doOnNext(failed -> log.info("Cache warm-up checked {} hot entries of cache '{}', refreshed {}, {} failed",
+                            hottestIds.size(), cache.getName(), staleIds.size(), failed));
+        }).onErrorResume(error -> {
+            log.warn("Cache warm-up could not refresh cache '{}': {}", cache.getName(), error.getMessage());
+            return Mono.empty();
+        }).then();
+    }
+}
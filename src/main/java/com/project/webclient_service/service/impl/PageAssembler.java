@@ -0,0 +1,130 @@
+package com.project.webclient_service.service.impl;
+
+import com.project.webclient_service.dto.PageRequestDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.exception.InvalidRequestException;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.Base64;
+import java.util.Comparator;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.function.Function;
+import java.util.stream.Stream;
+
+// Sorts, pages and encodes keyset cursors for list queries answered locally. A cursor holds the sort
+// key and id of the last returned entity, so the next page starts right after it even when entities
+// were added or removed in between.
+final class PageAssembler<T> {
+
+    static final int MAX_PAGE_SIZE = 500;
+    private static final String CURSOR_SEPARATOR = "\n";
+
+    private final Function<T, Long> idExtractor;
+    private final String defaultSortBy;
+    private final Map<String, SortKey<T>> sortKeys;
+
+    // Extracts a sort key from an entity and parses it back from its cursor representation
+    record SortKey<T>(Function<T, ? extends Comparable<?>> extractor, Function<String, ? extends Comparable<?>> parser) {
+    }
+
+    private record Position(Comparable<?> key, long id) {
+    }
+
+    PageAssembler(Function<T, Long> idExtractor, String defaultSortBy, Map<String, SortKey<T>> sortKeys) {
+        this.idExtractor = idExtractor;
+        this.defaultSortBy = defaultSortBy;
+        this.sortKeys = sortKeys;
+    }
+
+    PageResponseDTO<T> assemble(Stream<T> matching, PageRequestDTO request) {
+        String sortBy = request.getSortBy() == null ? defaultSortBy : request.getSortBy();
+        SortKey<T> sortKey = sortKeys.get(sortBy);
+        if (sortKey == null) {
+            throw new InvalidRequestException("Unsupported sort field: " + sortBy + ", expected one of " + sortKeys.keySet());
+        }
+        boolean descending = "desc".equalsIgnoreCase(request.getDirection());
+        int size = Math.min(Math.max(request.getSize(), 1), MAX_PAGE_SIZE);
+
+        Comparator<Position> positions = positionOrder(descending);
+        Comparator<T> order = Comparator.comparing(entity -> positionOf(sortKey, entity), positions);
+        Position after = request.getCursor() == null ? null : decodeCursor(request.getCursor(), sortBy, descending, sortKey);
+        // In long, a large page number must not overflow to a negative offset
+        long offset = after != null ? 0 : (long) Math.max(request.getPage(), 0) * size;
+
+        // Only the first offset + size + 1 entities after the cursor are kept and sorted, the extra one
+        // tells whether a next page exists. A cursor page costs O(n log size) instead of a full sort.
+        int limit = (int) Math.min(offset + size + 1, Integer.MAX_VALUE);
+        PriorityQueue<T> first = new PriorityQueue<>(order.reversed());
+        long total = 0;
+        for (Iterator<T> entities = matching.iterator(); entities.hasNext(); ) {
+            T entity = entities.next();
+            total++;
+            if (after != null && positions.compare(positionOf(sortKey, entity), after) <= 0) {
+                continue;
+            }
+            if (first.size() < limit) {
+                first.add(entity);
+            } else if (order.compare(entity, first.peek()) < 0) {
+                first.poll();
+                first.add(entity);
+            }
+        }
+        List<T> sorted = new ArrayList<>(first);
+        sorted.sort(order);
+
+        int from = (int) Math.min(offset, sorted.size());
+        int to = Math.min(from + size, sorted.size());
+
+        PageResponseDTO<T> page = new PageResponseDTO<>();
+        page.setItems(List.copyOf(sorted.subList(from, to)));
+        page.setSize(size);
+        page.setTotalElements(total);
+        if (to < sorted.size()) {
+            page.setNextCursor(encodeCursor(sortBy, descending, positionOf(sortKey, sorted.get(to - 1))));
+        }
+        return page;
+    }
+
+    private Position positionOf(SortKey<T> sortKey, T entity) {
+        return new Position(sortKey.extractor().apply(entity), idExtractor.apply(entity));
+    }
+
+    @SuppressWarnings({"unchecked", "rawtypes"})
+    private static Comparator<Position> positionOrder(boolean descending) {
+        Comparator<Comparable> keyOrder = Comparator.nullsLast(Comparator.naturalOrder());
+        Comparator<Position> order = (left, right) -> {
+            int byKey = keyOrder.compare((Comparable) left.key(), (Comparable) right.key());
+            return byKey != 0 ? byKey : Long.compare(left.id(), right.id());
+        };
+        return descending ? order.reversed() : order;
+    }
+
+    private static String encodeCursor(String sortBy, boolean descending, Position position) {
+        String key = position.key() == null ? "-" : "=" + position.key();
+        String cursor = String.join(CURSOR_SEPARATOR, sortBy, descending ? "desc" : "asc", Long.toString(position.id()), key);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(cursor.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private static Position decodeCursor(String cursor, String sortBy, boolean descending, SortKey<?> sortKey) {
+        String[] parts;
+        try {
+            parts = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8).split(CURSOR_SEPARATOR, 4);
+        } catch (IllegalArgumentException e) {
+            throw new InvalidRequestException("Malformed cursor: " + cursor);
+        }
+        if (parts.length != 4 || !parts[0].equals(sortBy) || !parts[1].equals(descending ? "desc" : "asc")) {
+            throw new InvalidRequestException("Cursor does not match the requested sort field and direction");
+        }
+
+        try {
+            Comparable<?> key = parts[3].startsWith("=") ? sortKey.parser().apply(parts[3].substring(1)) : null;
+            return new Position(key, Long.parseLong(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidRequestException("Malformed cursor: " + cursor);
+        }
+    }
+}
@@ -1,21 +1,43 @@
 package com.project.webclient_service.service.impl;
 
+import com.project.webclient_service.cache.CacheCoherence;
+import com.project.webclient_service.cache.ContentHash;
+import com.project.webclient_service.cache.DeltaSync;
+import com.project.webclient_service.cache.EntityCache;
+import com.project.webclient_service.cache.Listing;
+import com.project.webclient_service.cache.TieredCache;
+import com.project.webclient_service.cache.TaskIndex;
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.dto.TaskPageRequestDTO;
 import com.project.webclient_service.dto.TaskRequestDTO;
 import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.exception.DeadlineExceededException;
 import com.project.webclient_service.service.TaskService;
+import com.project.webclient_service.upstream.IdempotentRequests;
+import com.project.webclient_service.upstream.RequestCoalescer;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
+import java.time.LocalDateTime;
+import java.util.Arrays;
+import java.util.Comparator;
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Stream;
 
 @Service
 @RequiredArgsConstructor
@@ -25,23 +47,98 @@ public class TaskServiceImpl implements TaskService {
     private final WebClient webClient;
 
     public static final String CIRCUIT_BREAKER_SERVICE = "taskManagerService";
+    private static final PageAssembler<TaskResponseDTO> TASK_PAGES = new PageAssembler<>(TaskResponseDTO::getTaskId, "taskId", Map.of(
+            "taskId", new PageAssembler.SortKey<>(TaskResponseDTO::getTaskId, Long::valueOf),
+            "taskDueDate", new PageAssembler.SortKey<>(TaskResponseDTO::getTaskDueDate, LocalDateTime::parse),
+            "taskTitle", new PageAssembler.SortKey<>(TaskResponseDTO::getTaskTitle, Function.identity())));
+    private static final Comparator<TaskResponseDTO> BY_TASK_ID = Comparator.comparing(TaskResponseDTO::getTaskId);
+    private static final Comparator<TaskResponseDTO> BY_DUE_DATE = Comparator
+            .comparing(TaskResponseDTO::getTaskDueDate, Comparator.nullsLast(Comparator.naturalOrder()))
+            .thenComparing(BY_TASK_ID);
     private final CircuitBreakerRegistry circuitBreakerRegistry;
-    // In-memory cache to store tasks temporarily
-    private final ConcurrentMap<Long, TaskResponseDTO> taskCache = new ConcurrentHashMap<>();
+    // Bounded in-memory cache to store tasks temporarily
+    private final EntityCache<TaskResponseDTO> taskCache;
+    // Second level shared with the other replicas
+    private final TieredCache<TaskResponseDTO> sharedTaskCache;
+    // Deduplicates identical concurrent reads into one upstream call
+    private final RequestCoalescer requestCoalescer;
+    // Hedging, circuit breaker and retries for idempotent reads
+    private final IdempotentRequests idempotentRequests;
+    private final BatchExecutor batchExecutor;
+    // Applies successful writes to the caches
+    private final CacheCoherence cacheCoherence;
+    // Hash of the cached tasks, the ETag of listings served from the cache
+    private final ContentHash<TaskResponseDTO> taskContentHash;
+    // Last listing that came with an upstream ETag, revalidated instead of fetched again
+    private final AtomicReference<Listing<TaskResponseDTO>> taskListing = new AtomicReference<>();
+    // Secondary indexes over taskCache
+    private final TaskIndex taskIndex;
+    // Full task listing kept current by delta synchronization
+    private final DeltaSync<TaskResponseDTO> taskDeltaSync;
 
     @Override
     public Mono<List<TaskResponseDTO>> getAllTasks() {
-        log.info("getAllTasks method called to retrieve all tasks.");
+        log.debug("getAllTasks method called to retrieve all tasks.");
+        return loadAllTasks().map(Listing::values);
+    }
 
-        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_SERVICE);
+    @Override
+    public Mono<Listing<TaskResponseDTO>> getTaskListing() {
+        log.debug("getTaskListing method called to retrieve all tasks with their ETag.");
+        return loadAllTasks();
+    }
 
-        return webClient.get()
-                .uri("/task-api/list-tasks")
-                .retrieve()
-                .bodyToFlux(TaskResponseDTO.class)
-                .collectList()
-                .doOnNext(this::cacheTasks) // Cache the tasks after successfully fetching them
-                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+    // The full listing, from the replica while delta synchronization is enabled. The shared call runs
+    // without the request's deadline, a caller that runs out of budget falls back on its own.
+    private Mono<Listing<TaskResponseDTO>> loadAllTasks() {
+        if (!taskDeltaSync.isEnabled()) {
+            return requestCoalescer.coalesce("getAllTasks", this::fetchAllTasks)
+                    // Without cached tasks the client is told the deadline passed
+                    .onErrorResume(DeadlineExceededException.class, e -> {
+                        log.warn("Fallback triggered: Deadline exceeded");
+                        return fallbackTasks().onErrorMap(fallbackError -> e);
+                    });
+        }
+        if (taskDeltaSync.isFresh()) {
+            return Mono.just(taskDeltaSync.listing());
+        }
+        return requestCoalescer.coalesce("syncTasks", this::syncTasks)
+                .onErrorResume(DeadlineExceededException.class, e -> {
+                    log.warn("Fallback triggered: Deadline exceeded");
+                    return replicatedOrFallbackTasks().onErrorMap(fallbackError -> e);
+                });
+    }
+
+    // Fetch all tasks from the task manager, caching them on success. The last listing is revalidated with
+    // its upstream ETag, so an unchanged listing is neither transferred nor deserialized again.
+    private Mono<Listing<TaskResponseDTO>> fetchAllTasks() {
+        // The write epoch is taken before the listing is requested, writes made while it is in flight are kept
+        return Mono.defer(() -> {
+            long writeEpoch = taskCache.writeEpoch();
+            return idempotentRequests.execute("GET /task-api/list-tasks", () -> {
+                        Listing<TaskResponseDTO> previous = taskListing.get();
+                        return webClient.get()
+                                .uri("/task-api/list-tasks")
+                                .headers(headers -> {
+                                    if (previous != null) {
+                                        headers.setIfNoneMatch(previous.upstreamEtag());
+                                    }
+                                })
+                                .exchangeToMono(response -> {
+                                    if (previous != null && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                                        return response.releaseBody().thenReturn(previous);
+                                    }
+                                    if (response.statusCode().isError()) {
+                                        return response.createError();
+                                    }
+                                    String upstreamEtag = response.headers().asHttpHeaders().getETag();
+                                    return response.bodyToFlux(TaskResponseDTO.class)
+                                            .collectList()
+                                            .map(tasks -> new Listing<>(tasks, taskContentHash.of(tasks), upstreamEtag));
+                                });
+                    })
+                    .doOnNext(listing -> cacheTasks(listing, writeEpoch)); // Cache the tasks after successfully fetching them
+                })
                 .onErrorResume(CallNotPermittedException.class, e -> {
                     log.warn("Fallback triggered: Circuit breaker is open");
                     return fallbackTasks();
@@ -49,58 +146,192 @@ public class TaskServiceImpl implements TaskService {
                 .doOnError(error -> log.error("Error occurred while fetching tasks", error));
     }
 
-    // Cache tasks after successful fetch
-    private void cacheTasks(List<TaskResponseDTO> tasks) {
-        log.info("Caching {} tasks after successful fetch", tasks.size());
-        tasks.forEach(task -> taskCache.put(task.getTaskId(), task));
+    // Cache tasks after successful fetch. An unchanged listing that is still fully cached only renews the
+    // complete mark instead of rewriting every entry.
+    private void cacheTasks(Listing<TaskResponseDTO> listing, long writeEpoch) {
+        Listing<TaskResponseDTO> previous = taskListing.getAndSet(listing.upstreamEtag() != null ? listing : null);
+        if (listing == previous && taskContentHash.value() == listing.contentHash()) {
+            log.debug("Task listing not modified upstream, keeping {} cached tasks", listing.values().size());
+            taskCache.markComplete();
+            return;
+        }
+        log.debug("Caching {} tasks after successful fetch", listing.values().size());
+        taskCache.replaceAll(listing.values(), writeEpoch);
     }
 
-    public Mono<List<TaskResponseDTO>> fallbackTasks() {
-        log.info("Returning fallback tasks due to circuit breaker being open.");
+    public Mono<Listing<TaskResponseDTO>> fallbackTasks() {
+        log.debug("Returning fallback tasks due to circuit breaker being open.");
 
-        if (taskCache.isEmpty()) {
+        boolean hit = !taskCache.isEmpty();
+        taskCache.recordFallback(hit);
+        if (!hit) {
             log.warn("Cache is empty. No fallback data available.");
             return Mono.error(new RuntimeException("No cached tasks available and service is currently unavailable."));
         }
 
-        List<TaskResponseDTO> cachedTasks = taskCache.values().stream().toList();
-        return Mono.just(cachedTasks);
+        long contentHash = taskContentHash.value();
+        List<TaskResponseDTO> cachedTasks = taskCache.values();
+        // A write during the copy changes the hash, the copy is then hashed on its own
+        if (taskContentHash.value() != contentHash) {
+            contentHash = taskContentHash.of(cachedTasks);
+        }
+        return Mono.just(new Listing<>(cachedTasks, contentHash, null));
+    }
+
+
+    // Bring the replica up to date with the changes since the last synchronization, so the cost of a
+    // listing follows the number of changed tasks instead of the number of tasks
+    private Mono<Listing<TaskResponseDTO>> syncTasks() {
+        return taskDeltaSync.sync()
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.warn("Fallback triggered: Circuit breaker is open");
+                    return replicatedOrFallbackTasks();
+                })
+                .doOnError(error -> log.error("Error occurred while synchronizing tasks", error));
+    }
+
+    private Mono<Listing<TaskResponseDTO>> replicatedOrFallbackTasks() {
+        if (taskDeltaSync.isLoaded()) {
+            taskCache.recordFallback(true);
+            return Mono.just(taskDeltaSync.listing());
+        }
+        return fallbackTasks();
     }
 
 
     @Override
-    public Mono<TaskResponseDTO> getTaskById(Long taskId) {
-        log.info("getTaskById method called for task ID: {}", taskId);
+    public Flux<TaskResponseDTO> streamAllTasks() {
+        log.debug("streamAllTasks method called to stream all tasks.");
 
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_SERVICE);
 
         return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/task-api/list-task")
-                        .queryParam("taskId", taskId)
-                        .build())
+                .uri("/task-api/list-tasks")
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(TaskResponseDTO.class)
-                .doOnNext(this::cacheTask) // Cache single task after fetching
+                .bodyToFlux(TaskResponseDTO.class)
+                .doOnNext(taskCache::put) // Cache each task as it arrives instead of buffering the whole list
                 .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.warn("Fallback triggered: Circuit breaker is open");
+                    return fallbackTasks().flatMapIterable(Listing::values);
+                })
+                .doOnComplete(() -> log.debug("Finished streaming tasks"))
+                .doOnError(error -> log.error("Error occurred while streaming tasks", error));
+    }
+
+
+    @Override
+    public Mono<PageResponseDTO<TaskResponseDTO>> getTasksPage(TaskPageRequestDTO request) {
+        log.debug("getTasksPage method called for user ID: {}, due from: {}, due to: {}, sorted by: {}",
+                request.getUserId(), request.getDueFrom(), request.getDueTo(), request.getSortBy());
+        return queryTasks(request).map(tasks -> TASK_PAGES.assemble(tasks, request));
+    }
+
+    @Override
+    public Mono<List<TaskResponseDTO>> getTasksByUserId(Long userId) {
+        log.debug("getTasksByUserId method called for user ID: {}", userId);
+        TaskPageRequestDTO request = new TaskPageRequestDTO();
+        request.setUserId(userId);
+        return queryTasks(request).map(tasks -> tasks.sorted(BY_TASK_ID).toList());
+    }
+
+    @Override
+    public Mono<List<TaskResponseDTO>> getTasksDueBetween(LocalDateTime dueFrom, LocalDateTime dueTo) {
+        log.debug("getTasksDueBetween method called for due from: {}, due to: {}", dueFrom, dueTo);
+        TaskPageRequestDTO request = new TaskPageRequestDTO();
+        request.setDueFrom(dueFrom);
+        request.setDueTo(dueTo);
+        return queryTasks(request).map(tasks -> tasks.sorted(BY_DUE_DATE).toList());
+    }
+
+    // The task manager cannot filter, so queries are answered from the task indexes while the cache holds
+    // the full listing, and by scanning a fresh listing when it cannot hold it
+    private Mono<Stream<TaskResponseDTO>> queryTasks(TaskPageRequestDTO request) {
+        if (taskCache.isComplete()) {
+            return Mono.fromSupplier(() -> indexedTasks(request));
+        }
+        return loadAllTasks()
+                .map(listing -> taskCache.isComplete()
+                        ? indexedTasks(request)
+                        : listing.values().stream().filter(task -> matches(task, request)));
+    }
+
+    private Stream<TaskResponseDTO> indexedTasks(TaskPageRequestDTO request) {
+        Stream<TaskResponseDTO> candidates;
+        if (request.getUserId() != null) {
+            candidates = resolveTasks(taskIndex.taskIdsForUser(request.getUserId()));
+        } else if (request.getDueFrom() != null || request.getDueTo() != null) {
+            candidates = resolveTasks(taskIndex.taskIdsDueBetween(request.getDueFrom(), request.getDueTo()));
+        } else {
+            candidates = taskCache.values().stream();
+        }
+        return candidates.filter(task -> matches(task, request));
+    }
+
+    private Stream<TaskResponseDTO> resolveTasks(long[] taskIds) {
+        return Arrays.stream(taskIds)
+                .mapToObj(taskCache::peek)
+                .filter(Objects::nonNull);
+    }
+
+    private static boolean matches(TaskResponseDTO task, TaskPageRequestDTO request) {
+        if (request.getUserId() != null && !request.getUserId().equals(task.getUserId())) {
+            return false;
+        }
+        if (request.getDueFrom() == null && request.getDueTo() == null) {
+            return true;
+        }
+
+        LocalDateTime dueDate = task.getTaskDueDate();
+        return dueDate != null
+                && (request.getDueFrom() == null || !dueDate.isBefore(request.getDueFrom()))
+                && (request.getDueTo() == null || dueDate.isBefore(request.getDueTo()));
+    }
+
+
+    @Override
+    public Mono<TaskResponseDTO> getTaskById(Long taskId) {
+        log.debug("getTaskById method called for task ID: {}", taskId);
+        return taskCache.read(taskId, () -> loadTask(taskId));
+    }
+
+    // Coalesced load through the shared cache tier and the task manager, a caller out of budget falls back
+    // to the local cache
+    private Mono<TaskResponseDTO> loadTask(Long taskId) {
+        return requestCoalescer.coalesce("getTaskById:" + taskId, () -> sharedTaskCache.load(taskId, () -> fetchTaskById(taskId)))
+                .onErrorResume(DeadlineExceededException.class, e -> {
+                    log.warn("Fallback triggered: Deadline exceeded for task ID: {}", taskId);
+                    return fallbackTaskById(taskId).onErrorMap(fallbackError -> e);
+                });
+    }
+
+    // Fetch single task from the task manager, caching it on success
+    private Mono<TaskResponseDTO> fetchTaskById(Long taskId) {
+        return idempotentRequests.execute("GET /task-api/list-task", () -> webClient.get()
+                        .uri("/task-api/list-task?taskId={taskId}", taskId)
+                        .retrieve()
+                        .bodyToMono(TaskResponseDTO.class))
+                .doOnNext(this::cacheTask) // Cache single task after fetching
                 .onErrorResume(CallNotPermittedException.class, e -> {
                     log.warn("Fallback triggered: Circuit breaker is open for task ID: {}", taskId);
                     return fallbackTaskById(taskId);
                 })
-                .doOnSuccess(task -> log.info("Successfully fetched task with ID: {} and title: {}", task.getTaskId(), task.getTaskTitle()))
+                .doOnSuccess(task -> log.debug("Successfully fetched task with ID: {} and title: {}", task.getTaskId(), task.getTaskTitle()))
                 .doOnError(error -> log.error("Error occurred while fetching task with ID: {}", taskId, error));
     }
 
     // Cache single task after successful fetch
     private void cacheTask(TaskResponseDTO task) {
-        log.info("Caching task with ID: {} after successful fetch", task.getTaskId());
-        taskCache.put(task.getTaskId(), task);
+        log.debug("Caching task with ID: {} after successful fetch", task.getTaskId());
+        taskCache.put(task);
     }
 
     public Mono<TaskResponseDTO> fallbackTaskById(Long taskId) {
-        log.info("Returning fallback task due to circuit breaker being open for task ID: {}", taskId);
+        log.debug("Returning fallback task due to circuit breaker being open for task ID: {}", taskId);
 
         TaskResponseDTO cachedTask = taskCache.get(taskId);
+        taskCache.recordFallback(cachedTask != null);
         if (cachedTask == null) {
             log.warn("No cached task found for task ID: {}", taskId);
             return Mono.error(new RuntimeException("No cached task available for task ID: " + taskId + " and service is currently unavailable."));
@@ -112,12 +343,13 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public Mono<TaskResponseDTO> createTask(TaskRequestDTO taskRequestDTO) {
-        log.info("createTask method called to create a task with title: '{}'", taskRequestDTO.getTaskTitle());
+        log.debug("createTask method called to create a task with title: '{}'", taskRequestDTO.getTaskTitle());
         return webClient.post()
                 .uri("/task-api/create-task")
                 .body(Mono.just(taskRequestDTO), TaskRequestDTO.class)
                 .retrieve()
                 .bodyToMono(TaskResponseDTO.class)
+                .doOnNext(cacheCoherence::taskWritten)
                 .doOnSuccess(task -> log.info("Successfully created task with ID: {} and title: {}", task.getTaskId(), task.getTaskTitle()))
                 .doOnError(error -> log.error("Error occurred while creating task with title: {}", taskRequestDTO.getTaskTitle(), error));
     }
@@ -125,12 +357,13 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public Mono<TaskResponseDTO> updateTask(TaskRequestDTO taskRequestDTO) {
-        log.info("updateTask method called for task ID: {} with title: '{}'", taskRequestDTO.getTaskId(), taskRequestDTO.getTaskTitle());
+        log.debug("updateTask method called for task ID: {} with title: '{}'", taskRequestDTO.getTaskId(), taskRequestDTO.getTaskTitle());
         return webClient.put()
                 .uri("/task-api/update-task")
                 .body(Mono.just(taskRequestDTO), TaskRequestDTO.class)
                 .retrieve()
                 .bodyToMono(TaskResponseDTO.class)
+                .doOnNext(cacheCoherence::taskWritten)
                 .doOnSuccess(task -> log.info("Successfully updated task with ID: {} and title: {}", task.getTaskId(), task.getTaskTitle()))
                 .doOnError(error -> log.error("Error occurred while updating task with ID: {} and title: {}", taskRequestDTO.getTaskId(), taskRequestDTO.getTaskTitle(), error));
     }
@@ -138,16 +371,58 @@ public class TaskServiceImpl implements TaskService {
 
     @Override
     public Mono<Void> deleteTask(Long taskId) {
-        log.info("deleteTask method called for task ID: {}", taskId);
+        log.debug("deleteTask method called for task ID: {}", taskId);
         return webClient.delete()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/task-api/delete-task")
-                        .queryParam("taskId", taskId)
-                        .build())
+                .uri("/task-api/delete-task?taskId={taskId}", taskId)
                 .retrieve()
                 .bodyToMono(Void.class)
-                .doOnSuccess(aVoid -> log.info("Successfully deleted task with ID: {}", taskId))
+                .doOnSuccess(aVoid -> {
+                    cacheCoherence.taskDeleted(taskId); // Deleted tasks must not be served from the fallback cache
+                    log.info("Successfully deleted task with ID: {}", taskId);
+                })
                 .doOnError(error -> log.error("Error occurred while deleting task with ID: {}", taskId, error));
     }
-}
 
+
+    @Override
+    public Mono<BatchResponseDTO<TaskResponseDTO>> getTasksBatch(List<Long> taskIds) {
+        log.debug("getTasksBatch method called for {} task IDs", taskIds.size());
+        return batchExecutor.execute(taskIds, Function.identity(), this::cachedOrFetchTask);
+    }
+
+    // Fresh cache hits are served without an upstream call, regardless of the read mode
+    private Mono<TaskResponseDTO> cachedOrFetchTask(Long taskId) {
+        TaskResponseDTO cachedTask = taskCache.getIfFresh(taskId);
+        if (cachedTask != null) {
+            return Mono.just(cachedTask);
+        }
+        return loadTask(taskId);
+    }
+
+    @Override
+    public Mono<BatchResponseDTO<TaskResponseDTO>> refreshTasksBatch(List<Long> taskIds) {
+        log.debug("refreshTasksBatch method called for {} task IDs", taskIds.size());
+        return batchExecutor.execute(taskIds, Function.identity(), this::loadTask);
+    }
+
+
+    @Override
+    public Mono<BatchResponseDTO<TaskResponseDTO>> createTasksBatch(List<TaskRequestDTO> taskRequestDTOs) {
+        log.info("createTasksBatch method called for {} tasks", taskRequestDTOs.size());
+        return batchExecutor.execute(taskRequestDTOs, TaskRequestDTO::getTaskId, this::createTask);
+    }
+
+
+    @Override
+    public Mono<BatchResponseDTO<TaskResponseDTO>> updateTasksBatch(List<TaskRequestDTO> taskRequestDTOs) {
+        log.info("updateTasksBatch method called for {} tasks", taskRequestDTOs.size());
+        return batchExecutor.execute(taskRequestDTOs, TaskRequestDTO::getTaskId, this::updateTask);
+    }
+
+
+    @Override
+    public Mono<BatchResponseDTO<Void>> deleteTasksBatch(List<Long> taskIds) {
+        log.info("deleteTasksBatch method called for {} task IDs", taskIds.size());
+        return batchExecutor.execute(taskIds, Function.identity(), this::deleteTask);
+    }
+}
@@ -1,21 +1,43 @@
 package com.project.webclient_service.service.impl;
 
+import com.project.webclient_service.cache.CacheCoherence;
+import com.project.webclient_service.cache.ContentHash;
+import com.project.webclient_service.cache.DeltaSync;
+import com.project.webclient_service.cache.EntityCache;
+import com.project.webclient_service.cache.Listing;
+import com.project.webclient_service.cache.TieredCache;
+import com.project.webclient_service.dto.BatchItemResultDTO;
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserPageRequestDTO;
 import com.project.webclient_service.dto.UserRequestDTO;
 import com.project.webclient_service.dto.UserResponseDTO;
+import com.project.webclient_service.dto.UserWithTasksDTO;
+import com.project.webclient_service.exception.DeadlineExceededException;
+import com.project.webclient_service.service.TaskService;
 import com.project.webclient_service.service.UserService;
+import com.project.webclient_service.upstream.IdempotentRequests;
+import com.project.webclient_service.upstream.RequestCoalescer;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.stereotype.Service;
 import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
 import reactor.core.publisher.Mono;
 
 import java.util.List;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.ConcurrentMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @RequiredArgsConstructor
@@ -25,22 +47,92 @@ public class UserServiceImpl implements UserService {
     private final WebClient webClient;
 
     public static final String CIRCUIT_BREAKER_SERVICE = "taskManagerService";
+    private static final PageAssembler<UserResponseDTO> USER_PAGES = new PageAssembler<>(UserResponseDTO::getUserId, "userId", Map.of(
+            "userId", new PageAssembler.SortKey<>(UserResponseDTO::getUserId, Long::valueOf),
+            "fullName", new PageAssembler.SortKey<>(UserResponseDTO::getFullName, Function.identity()),
+            "userEmail", new PageAssembler.SortKey<>(UserResponseDTO::getUserEmail, Function.identity())));
     private final CircuitBreakerRegistry circuitBreakerRegistry;
-    private final ConcurrentMap<Long, UserResponseDTO> userCache = new ConcurrentHashMap<>();
+    private final EntityCache<UserResponseDTO> userCache;
+    // Second level shared with the other replicas
+    private final TieredCache<UserResponseDTO> sharedUserCache;
+    // Deduplicates identical concurrent reads into one upstream call
+    private final RequestCoalescer requestCoalescer;
+    // Hedging, circuit breaker and retries for idempotent reads
+    private final IdempotentRequests idempotentRequests;
+    private final BatchExecutor batchExecutor;
+    // Applies successful writes to the caches
+    private final CacheCoherence cacheCoherence;
+    // Hash of the cached users, the ETag of listings served from the cache
+    private final ContentHash<UserResponseDTO> userContentHash;
+    // Last listing that came with an upstream ETag, revalidated instead of fetched again
+    private final AtomicReference<Listing<UserResponseDTO>> userListing = new AtomicReference<>();
+    private final TaskService taskService;
+    // Full user listing kept current by delta synchronization
+    private final DeltaSync<UserResponseDTO> userDeltaSync;
 
     @Override
     public Mono<List<UserResponseDTO>> getAllUsers() {
-        log.info("getAllUsers method called to retrieve all users.");
+        log.debug("getAllUsers method called to retrieve all users.");
+        return loadAllUsers().map(Listing::values);
+    }
 
-        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_SERVICE);
+    @Override
+    public Mono<Listing<UserResponseDTO>> getUserListing() {
+        log.debug("getUserListing method called to retrieve all users with their ETag.");
+        return loadAllUsers();
+    }
 
-        return webClient.get()
-                .uri("/user-api/list-users")
-                .retrieve()
-                .bodyToFlux(UserResponseDTO.class)
-                .collectList()
-                .doOnNext(this::cacheUsers) // Cache the users after successfully fetching them
-                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+    // The full listing, from the replica while delta synchronization is enabled. The shared call runs
+    // without the request's deadline, a caller that runs out of budget falls back on its own.
+    private Mono<Listing<UserResponseDTO>> loadAllUsers() {
+        if (!userDeltaSync.isEnabled()) {
+            return requestCoalescer.coalesce("getAllUsers", this::fetchAllUsers)
+                    // Without cached users the client is told the deadline passed
+                    .onErrorResume(DeadlineExceededException.class, e -> {
+                        log.warn("Fallback triggered: Deadline exceeded");
+                        return fallbackUsers().onErrorMap(fallbackError -> e);
+                    });
+        }
+        if (userDeltaSync.isFresh()) {
+            return Mono.just(userDeltaSync.listing());
+        }
+        return requestCoalescer.coalesce("syncUsers", this::syncUsers)
+                .onErrorResume(DeadlineExceededException.class, e -> {
+                    log.warn("Fallback triggered: Deadline exceeded");
+                    return replicatedOrFallbackUsers().onErrorMap(fallbackError -> e);
+                });
+    }
+
+    // Fetch all users from the task manager, caching them on success. The last listing is revalidated with
+    // its upstream ETag, so an unchanged listing is neither transferred nor deserialized again.
+    private Mono<Listing<UserResponseDTO>> fetchAllUsers() {
+        // The write epoch is taken before the listing is requested, writes made while it is in flight are kept
+        return Mono.defer(() -> {
+            long writeEpoch = userCache.writeEpoch();
+            return idempotentRequests.execute("GET /user-api/list-users", () -> {
+                        Listing<UserResponseDTO> previous = userListing.get();
+                        return webClient.get()
+                                .uri("/user-api/list-users")
+                                .headers(headers -> {
+                                    if (previous != null) {
+                                        headers.setIfNoneMatch(previous.upstreamEtag());
+                                    }
+                                })
+                                .exchangeToMono(response -> {
+                                    if (previous != null && response.statusCode().isSameCodeAs(HttpStatus.NOT_MODIFIED)) {
+                                        return response.releaseBody().thenReturn(previous);
+                                    }
+                                    if (response.statusCode().isError()) {
+                                        return response.createError();
+                                    }
+                                    String upstreamEtag = response.headers().asHttpHeaders().getETag();
+                                    return response.bodyToFlux(UserResponseDTO.class)
+                                            .collectList()
+                                            .map(users -> new Listing<>(users, userContentHash.of(users), upstreamEtag));
+                                });
+                    })
+                    .doOnNext(listing -> cacheUsers(listing, writeEpoch)); // Cache the users after successfully fetching them
+                })
                 .onErrorResume(CallNotPermittedException.class, e -> {
                     log.warn("Fallback triggered: Circuit breaker is open");
                     return fallbackUsers();
@@ -48,58 +140,179 @@ public class UserServiceImpl implements UserService {
                 .doOnError(error -> log.error("Error occurred while fetching users", error));
     }
 
-    // Cache users after successful fetch
-    private void cacheUsers(List<UserResponseDTO> users) {
-        log.info("Caching {} users after successful fetch", users.size());
-        users.forEach(user -> userCache.put(user.getUserId(), user));
+    // Cache users after successful fetch. An unchanged listing that is still fully cached only renews the
+    // complete mark instead of rewriting every entry.
+    private void cacheUsers(Listing<UserResponseDTO> listing, long writeEpoch) {
+        Listing<UserResponseDTO> previous = userListing.getAndSet(listing.upstreamEtag() != null ? listing : null);
+        if (listing == previous && userContentHash.value() == listing.contentHash()) {
+            log.debug("User listing not modified upstream, keeping {} cached users", listing.values().size());
+            userCache.markComplete();
+            return;
+        }
+        log.debug("Caching {} users after successful fetch", listing.values().size());
+        userCache.replaceAll(listing.values(), writeEpoch);
     }
 
-    public Mono<List<UserResponseDTO>> fallbackUsers() {
-        log.info("Returning fallback users due to circuit breaker being open.");
+    public Mono<Listing<UserResponseDTO>> fallbackUsers() {
+        log.debug("Returning fallback users due to circuit breaker being open.");
 
-        if (userCache.isEmpty()) {
+        boolean hit = !userCache.isEmpty();
+        userCache.recordFallback(hit);
+        if (!hit) {
             log.warn("Cache is empty. No fallback data available.");
             return Mono.error(new RuntimeException("No cached users available and service is currently unavailable."));
         }
 
-        List<UserResponseDTO> cachedUsers = userCache.values().stream().toList();
-        return Mono.just(cachedUsers);
+        long contentHash = userContentHash.value();
+        List<UserResponseDTO> cachedUsers = userCache.values();
+        // A write during the copy changes the hash, the copy is then hashed on its own
+        if (userContentHash.value() != contentHash) {
+            contentHash = userContentHash.of(cachedUsers);
+        }
+        return Mono.just(new Listing<>(cachedUsers, contentHash, null));
+    }
+
+
+    // Bring the replica up to date with the changes since the last synchronization, so the cost of a
+    // listing follows the number of changed users instead of the number of users
+    private Mono<Listing<UserResponseDTO>> syncUsers() {
+        return userDeltaSync.sync()
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.warn("Fallback triggered: Circuit breaker is open");
+                    return replicatedOrFallbackUsers();
+                })
+                .doOnError(error -> log.error("Error occurred while synchronizing users", error));
+    }
+
+    private Mono<Listing<UserResponseDTO>> replicatedOrFallbackUsers() {
+        if (userDeltaSync.isLoaded()) {
+            userCache.recordFallback(true);
+            return Mono.just(userDeltaSync.listing());
+        }
+        return fallbackUsers();
     }
 
 
     @Override
-    public Mono<UserResponseDTO> getUserById(Long userId) {
-        log.info("getUserById method called for user ID: {}", userId);
+    public Flux<UserResponseDTO> streamAllUsers() {
+        log.debug("streamAllUsers method called to stream all users.");
 
         CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(CIRCUIT_BREAKER_SERVICE);
 
         return webClient.get()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/user-api/list-user")
-                        .queryParam("userId", userId)
-                        .build())
+                .uri("/user-api/list-users")
+                .accept(MediaType.APPLICATION_NDJSON, MediaType.APPLICATION_JSON)
                 .retrieve()
-                .bodyToMono(UserResponseDTO.class)
-                .doOnNext(this::cacheUser) // Cache single user after fetching
+                .bodyToFlux(UserResponseDTO.class)
+                .doOnNext(userCache::put) // Cache each user as it arrives instead of buffering the whole list
                 .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .onErrorResume(CallNotPermittedException.class, e -> {
+                    log.warn("Fallback triggered: Circuit breaker is open");
+                    return fallbackUsers().flatMapIterable(Listing::values);
+                })
+                .doOnComplete(() -> log.debug("Finished streaming users"))
+                .doOnError(error -> log.error("Error occurred while streaming users", error));
+    }
+
+
+    @Override
+    public Mono<PageResponseDTO<UserResponseDTO>> getUsersPage(UserPageRequestDTO request) {
+        log.debug("getUsersPage method called for role: {}, sorted by: {}", request.getRole(), request.getSortBy());
+        return listUsersForQuery()
+                .map(users -> USER_PAGES.assemble(users.stream().filter(user -> matches(user, request)), request));
+    }
+
+    // The task manager cannot filter, so queries are answered from the cache while it holds the full listing
+    private Mono<List<UserResponseDTO>> listUsersForQuery() {
+        if (userCache.isComplete()) {
+            return Mono.fromSupplier(userCache::values);
+        }
+        return loadAllUsers().map(Listing::values);
+    }
+
+    private static boolean matches(UserResponseDTO user, UserPageRequestDTO request) {
+        return request.getRole() == null || request.getRole().equalsIgnoreCase(user.getRole());
+    }
+
+
+    @Override
+    public Mono<UserResponseDTO> getUserById(Long userId) {
+        log.debug("getUserById method called for user ID: {}", userId);
+        return userCache.read(userId, () -> loadUser(userId));
+    }
+
+    // Coalesced load through the shared cache tier and the task manager, a caller out of budget falls back
+    // to the local cache
+    private Mono<UserResponseDTO> loadUser(Long userId) {
+        return requestCoalescer.coalesce("getUserById:" + userId, () -> sharedUserCache.load(userId, () -> fetchUserById(userId)))
+                .onErrorResume(DeadlineExceededException.class, e -> {
+                    log.warn("Fallback triggered: Deadline exceeded for user ID: {}", userId);
+                    return fallbackUserById(userId).onErrorMap(fallbackError -> e);
+                });
+    }
+
+    // Fetch single user from the task manager, caching it on success
+    private Mono<UserResponseDTO> fetchUserById(Long userId) {
+        return idempotentRequests.execute("GET /user-api/list-user", () -> webClient.get()
+                        .uri("/user-api/list-user?userId={userId}", userId)
+                        .retrieve()
+                        .bodyToMono(UserResponseDTO.class))
+                .doOnNext(this::cacheUser) // Cache single user after fetching
                 .onErrorResume(CallNotPermittedException.class, e -> {
                     log.warn("Fallback triggered: Circuit breaker is open for user ID: {}", userId);
                     return fallbackUserById(userId);
                 })
-                .doOnSuccess(user -> log.info("Successfully fetched user with ID: {} and email: {}", userId, user.getUserEmail()))
+                .doOnSuccess(user -> log.debug("Successfully fetched user with ID: {} and email: {}", userId, user.getUserEmail()))
                 .doOnError(error -> log.error("Error occurred while fetching user with ID: {}", userId, error));
     }
 
+    @Override
+    public Mono<UserWithTasksDTO> getUserWithTasks(Long userId) {
+        log.debug("getUserWithTasks method called for user ID: {}", userId);
+        return getUserById(userId)
+                .flatMap(user -> {
+                    List<Long> taskIds = user.getTaskIds() == null ? List.of() : user.getTaskIds().stream().sorted().toList();
+                    // Cached tasks are taken from memory, the rest are fetched concurrently up to the batch concurrency.
+                    // Users may own more tasks than a batch request may hold, so the ids are split into batches.
+                    int batchSize = batchExecutor.getMaxSize();
+                    return Flux.range(0, (taskIds.size() + batchSize - 1) / batchSize)
+                            .concatMap(batch -> taskService.getTasksBatch(
+                                    taskIds.subList(batch * batchSize, Math.min((batch + 1) * batchSize, taskIds.size()))))
+                            .flatMapIterable(BatchResponseDTO::getResults)
+                            .collectList()
+                            .map(tasks -> toUserWithTasks(user, tasks));
+                });
+    }
+
+    private static UserWithTasksDTO toUserWithTasks(UserResponseDTO user, List<BatchItemResultDTO<TaskResponseDTO>> tasks) {
+        UserWithTasksDTO userWithTasks = new UserWithTasksDTO();
+        userWithTasks.setUserId(user.getUserId());
+        userWithTasks.setFullName(user.getFullName());
+        userWithTasks.setUserEmail(user.getUserEmail());
+        userWithTasks.setRole(user.getRole());
+        userWithTasks.setTasks(tasks.stream()
+                .filter(BatchItemResultDTO::isSuccess)
+                .map(BatchItemResultDTO::getData)
+                .toList());
+        Set<Long> unresolvedTaskIds = tasks.stream()
+                .filter(result -> !result.isSuccess())
+                .map(BatchItemResultDTO::getId)
+                .collect(Collectors.toSet());
+        userWithTasks.setUnresolvedTaskIds(unresolvedTaskIds);
+        return userWithTasks;
+    }
+
     // Cache single user after successful fetch
     private void cacheUser(UserResponseDTO user) {
-        log.info("Caching user with ID: {} after successful fetch", user.getUserId());
-        userCache.put(user.getUserId(), user);
+        log.debug("Caching user with ID: {} after successful fetch", user.getUserId());
+        userCache.put(user);
     }
 
     public Mono<UserResponseDTO> fallbackUserById(Long userId) {
-        log.info("Returning fallback user due to circuit breaker being open for user ID: {}", userId);
+        log.debug("Returning fallback user due to circuit breaker being open for user ID: {}", userId);
 
         UserResponseDTO cachedUser = userCache.get(userId);
+        userCache.recordFallback(cachedUser != null);
         if (cachedUser == null) {
             log.warn("No cached user found for user ID: {}", userId);
             return Mono.error(new RuntimeException("No cached user available for user ID: " + userId + " and service is currently unavailable."));
@@ -111,12 +324,13 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Mono<UserResponseDTO> createUser(UserRequestDTO userRequestDTO) {
-        log.info("createUser method called to create a user with email: '{}'", userRequestDTO.getUserEmail());
+        log.debug("createUser method called to create a user with email: '{}'", userRequestDTO.getUserEmail());
         return webClient.post()
                 .uri("/user-api/create-user")
                 .body(Mono.just(userRequestDTO), UserRequestDTO.class)
                 .retrieve()
                 .bodyToMono(UserResponseDTO.class)
+                .doOnNext(cacheCoherence::userWritten)
                 .doOnSuccess(user -> log.info("Successfully created user with ID: {} and email: {}", user.getUserId(), user.getUserEmail()))
                 .doOnError(error -> log.error("Error occurred while creating user with email: {}", userRequestDTO.getUserEmail(), error));
     }
@@ -124,12 +338,13 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Mono<UserResponseDTO> updateUser(UserRequestDTO userRequestDTO) {
-        log.info("updateUser method called for user ID: {} with email: '{}'", userRequestDTO.getUserId(), userRequestDTO.getUserEmail());
+        log.debug("updateUser method called for user ID: {} with email: '{}'", userRequestDTO.getUserId(), userRequestDTO.getUserEmail());
         return webClient.put()
                 .uri("/user-api/update-user")
                 .body(Mono.just(userRequestDTO), UserRequestDTO.class)
                 .retrieve()
                 .bodyToMono(UserResponseDTO.class)
+                .doOnNext(cacheCoherence::userWritten)
                 .doOnSuccess(user -> log.info("Successfully updated user with ID: {} and email: {}", user.getUserId(), user.getUserEmail()))
                 .doOnError(error -> log.error("Error occurred while updating user with ID: {} and email: {}", userRequestDTO.getUserId(), userRequestDTO.getUserEmail(), error));
     }
@@ -137,14 +352,58 @@ public class UserServiceImpl implements UserService {
 
     @Override
     public Mono<Void> deleteUser(Long userId) {
-        log.info("deleteUser method called for user ID: {}", userId);
+        log.debug("deleteUser method called for user ID: {}", userId);
         return webClient.delete()
-                .uri(uriBuilder -> uriBuilder
-                        .path("/user-api/delete-user/{id}")
-                        .build(userId))
+                .uri("/user-api/delete-user/{id}", userId)
                 .retrieve()
                 .bodyToMono(Void.class)
-                .doOnSuccess(aVoid -> log.info("Successfully deleted user with ID: {}", userId))
+                .doOnSuccess(aVoid -> {
+                    cacheCoherence.userDeleted(userId); // Deleted users must not be served from the fallback cache
+                    log.info("Successfully deleted user with ID: {}", userId);
+                })
                 .doOnError(error -> log.error("Error occurred while deleting user with ID: {}", userId, error));
     }
-}
\ No newline at end of file
+
+
+    @Override
+    public Mono<BatchResponseDTO<UserResponseDTO>> getUsersBatch(List<Long> userIds) {
+        log.debug("getUsersBatch method called for {} user IDs", userIds.size());
+        return batchExecutor.execute(userIds, Function.identity(), this::cachedOrFetchUser);
+    }
+
+    // Fresh cache hits are served without an upstream call, regardless of the read mode
+    private Mono<UserResponseDTO> cachedOrFetchUser(Long userId) {
+        UserResponseDTO cachedUser = userCache.getIfFresh(userId);
+        if (cachedUser != null) {
+            return Mono.just(cachedUser);
+        }
+        return loadUser(userId);
+    }
+
+    @Override
+    public Mono<BatchResponseDTO<UserResponseDTO>> refreshUsersBatch(List<Long> userIds) {
+        log.debug("refreshUsersBatch method called for {} user IDs", userIds.size());
+        return batchExecutor.execute(userIds, Function.identity(), this::loadUser);
+    }
+
+
+    @Override
+    public Mono<BatchResponseDTO<UserResponseDTO>> createUsersBatch(List<UserRequestDTO> userRequestDTOs) {
+        log.info("createUsersBatch method called for {} users", userRequestDTOs.size());
+        return batchExecutor.execute(userRequestDTOs, UserRequestDTO::getUserId, this::createUser);
+    }
+
+
+    @Override
+    public Mono<BatchResponseDTO<UserResponseDTO>> updateUsersBatch(List<UserRequestDTO> userRequestDTOs) {
+        log.info("updateUsersBatch method called for {} users", userRequestDTOs.size());
+        return batchExecutor.execute(userRequestDTOs, UserRequestDTO::getUserId, this::updateUser);
+    }
+
+
+    @Override
+    public Mono<BatchResponseDTO<Void>> deleteUsersBatch(List<Long> userIds) {
+        log.info("deleteUsersBatch method called for {} user IDs", userIds.size());
+        return batchExecutor.execute(userIds, Function.identity(), this::deleteUser);
+    }
+}
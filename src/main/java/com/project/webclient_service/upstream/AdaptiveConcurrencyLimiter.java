@@ -0,0 +1,92 @@
+package com.project.webclient_service.upstream;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+// AIMD concurrency limit for one upstream route. The limit grows by about one per round trip while
+// latency stays within the tolerance of the smoothed baseline, and is cut by the backoff ratio on
+// timeouts, errors, overload responses and latency spikes, at most once per round trip.
+public class AdaptiveConcurrencyLimiter {
+
+    // Weight of a new sample in the latency baseline
+    private static final double BASELINE_SMOOTHING = 0.05;
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final double latencyTolerance;
+    private final AtomicInteger inFlight = new AtomicInteger();
+
+    // Written under the lock, read without it when acquiring
+    private volatile double limit;
+    // Guarded by this
+    private double baselineNanos;
+    private long lastDecreaseNanos;
+
+    public AdaptiveConcurrencyLimiter(int initialLimit, int minLimit, int maxLimit, double backoffRatio,
+                                      double latencyTolerance) {
+        this.limit = initialLimit;
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyTolerance = latencyTolerance;
+        this.lastDecreaseNanos = System.nanoTime();
+    }
+
+    public boolean tryAcquire() {
+        int limit = getLimit();
+        while (true) {
+            int current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+            if (inFlight.compareAndSet(current, current + 1)) {
+                return true;
+            }
+        }
+    }
+
+    // Completed call, the latency decides whether the upstream is keeping up
+    public synchronized void onSuccess(long latencyNanos) {
+        int inFlightBefore = inFlight.getAndDecrement();
+        if (baselineNanos == 0) {
+            baselineNanos = latencyNanos;
+            return;
+        }
+
+        boolean degraded = latencyNanos > baselineNanos * latencyTolerance;
+        baselineNanos += (latencyNanos - baselineNanos) * BASELINE_SMOOTHING;
+        if (degraded) {
+            decrease(System.nanoTime());
+        } else if (inFlightBefore * 2 >= limit) {
+            // Only grow while the limit is actually used, otherwise it drifts up during quiet periods
+            limit = Math.min(maxLimit, limit + 1 / limit);
+        }
+    }
+
+    // Timeout, connection failure or overload response
+    public synchronized void onDropped() {
+        inFlight.decrementAndGet();
+        decrease(System.nanoTime());
+    }
+
+    // Call that says nothing about upstream health, e.g. cancelled by the caller
+    public void onIgnored() {
+        inFlight.decrementAndGet();
+    }
+
+    private void decrease(long now) {
+        if (now - lastDecreaseNanos < baselineNanos) {
+            return;
+        }
+        lastDecreaseNanos = now;
+        limit = Math.max(minLimit, limit * backoffRatio);
+    }
+
+    public int getLimit() {
+        return (int) limit;
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+}
@@ -0,0 +1,40 @@
+package com.project.webclient_service.upstream;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+// Counts circuit breaker state transitions. Resilience4j publishes the current state and the call
+// outcomes, but not how often a breaker flapped between them.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class CircuitBreakerTransitions implements MeterBinder {
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    @Override
+    public void bindTo(MeterRegistry registry) {
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(circuitBreaker -> monitor(registry, circuitBreaker));
+        circuitBreakerRegistry.getEventPublisher().onEntryAdded(event -> monitor(registry, event.getAddedEntry()));
+    }
+
+    private void monitor(MeterRegistry registry, CircuitBreaker circuitBreaker) {
+        circuitBreaker.getEventPublisher().onStateTransition(event -> {
+            CircuitBreaker.StateTransition transition = event.getStateTransition();
+            log.warn("Circuit breaker {} changed from {} to {}", circuitBreaker.getName(), transition.getFromState(), transition.getToState());
+            Counter.builder("webclient.circuitbreaker.transitions")
+                    .description("Circuit breaker state transitions")
+                    .tag("name", circuitBreaker.getName())
+                    .tag("from", transition.getFromState().name())
+                    .tag("to", transition.getToState().name())
+                    .register(registry)
+                    .increment();
+        });
+    }
+}
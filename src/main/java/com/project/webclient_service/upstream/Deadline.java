@@ -0,0 +1,29 @@
+package com.project.webclient_service.upstream;
+
+import reactor.util.context.ContextView;
+
+import java.time.Duration;
+
+// Point in time by which the client of the current request stops waiting. It travels in the Reactor
+// context of the request, so every upstream call made for the request can bound itself by what is left.
+public record Deadline(long expiresAtNanos) {
+
+    public static final Class<Deadline> CONTEXT_KEY = Deadline.class;
+
+    public static Deadline after(Duration budget) {
+        return new Deadline(System.nanoTime() + budget.toNanos());
+    }
+
+    // The request's deadline, null for calls made outside a request such as cache warm-up
+    public static Deadline from(ContextView context) {
+        return context.getOrDefault(CONTEXT_KEY, null);
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(expiresAtNanos - System.nanoTime());
+    }
+
+    public boolean isExpired() {
+        return expiresAtNanos - System.nanoTime() <= 0;
+    }
+}
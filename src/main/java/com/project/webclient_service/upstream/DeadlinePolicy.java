@@ -0,0 +1,79 @@
+package com.project.webclient_service.upstream;
+
+import jakarta.annotation.PostConstruct;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+// Budget of an incoming request: what the caller sent in the deadline header, or the default of the
+// endpoint. Header budgets are capped so a client cannot hold connections for longer than the maximum,
+// or than the endpoint's default where that is longer. Endpoint defaults are configured and apply as is.
+@Component
+@Slf4j
+public class DeadlinePolicy {
+
+    private final Map<String, Duration> endpointBudgets = new HashMap<>();
+
+    // Remaining budget in milliseconds, read from clients and sent to the task manager
+    @Value("${webclient.deadline.header}")
+    private String header;
+
+    @Value("${webclient.deadline.default}")
+    private Duration defaultBudget;
+
+    @Value("${webclient.deadline.max}")
+    private Duration maxBudget;
+
+    // Entries of the form /web-client/stream-tasks=60s
+    @Value("${webclient.deadline.endpoints}")
+    private String[] endpoints;
+
+    @PostConstruct
+    void parseEndpoints() {
+        for (String endpoint : endpoints) {
+            int separator = endpoint.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected <path>=<budget> in webclient.deadline.endpoints: " + endpoint);
+            }
+            endpointBudgets.put(endpoint.substring(0, separator).trim(),
+                    DurationStyle.detectAndParse(endpoint.substring(separator + 1).trim()));
+        }
+    }
+
+    public String header() {
+        return header;
+    }
+
+    public Deadline deadlineFor(String path, String headerValue) {
+        Duration budget = endpointBudgets.getOrDefault(path, defaultBudget);
+        Duration requested = requestedBudget(headerValue);
+        if (requested == null) {
+            return Deadline.after(budget);
+        }
+        Duration cap = budget.compareTo(maxBudget) > 0 ? budget : maxBudget;
+        return Deadline.after(requested.compareTo(cap) > 0 ? cap : requested);
+    }
+
+    // Malformed and non-positive values are ignored, they would end the request before it started
+    private Duration requestedBudget(String headerValue) {
+        if (headerValue == null) {
+            return null;
+        }
+        long millis;
+        try {
+            millis = Long.parseLong(headerValue.trim());
+        } catch (NumberFormatException e) {
+            millis = 0;
+        }
+        if (millis <= 0) {
+            log.debug("Ignoring invalid {} header: {}", header, headerValue);
+            return null;
+        }
+        return Duration.ofMillis(millis);
+    }
+}
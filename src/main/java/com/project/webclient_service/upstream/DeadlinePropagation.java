@@ -0,0 +1,66 @@
+package com.project.webclient_service.upstream;
+
+import com.project.webclient_service.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// WebClient filter that bounds every upstream call by the deadline of the request it is made for. The
+// remaining budget is sent to the task manager in the deadline header, a call whose deadline already
+// passed is never sent, and a call still waiting for its response or still reading its body at the
+// deadline is cancelled, which releases its connection and its concurrency slot.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class DeadlinePropagation implements ExchangeFilterFunction {
+
+    private final DeadlinePolicy deadlinePolicy;
+    private final MeterRegistry meterRegistry;
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return next.exchange(request);
+            }
+
+            String route = RouteConcurrencyLimiter.routeOf(request);
+            if (deadline.isExpired()) {
+                return Mono.error(exceeded(route));
+            }
+            ClientRequest withBudget = ClientRequest.from(request)
+                    .header(deadlinePolicy.header(), String.valueOf(Math.max(1, deadline.remaining().toMillis())))
+                    .build();
+            return next.exchange(withBudget)
+                    .timeout(deadline.remaining(), Mono.error(() -> exceeded(route)))
+                    .map(response -> response.mutate()
+                            .body(body -> body.timeout(untilExpired(deadline), buffer -> untilExpired(deadline),
+                                    Flux.error(() -> exceeded(route))))
+                            .build());
+        });
+    }
+
+    // Each buffer waits only for what is left of the deadline, so the whole body is bounded by it
+    private static Mono<Long> untilExpired(Deadline deadline) {
+        return Mono.defer(() -> Mono.delay(deadline.remaining()));
+    }
+
+    private DeadlineExceededException exceeded(String route) {
+        log.debug("Deadline exceeded for call to {}", route);
+        Counter.builder("webclient.upstream.deadline.exceeded")
+                .description("Upstream calls not sent or cancelled because the request deadline passed")
+                .tag("route", route)
+                .register(meterRegistry)
+                .increment();
+        return new DeadlineExceededException(route);
+    }
+}
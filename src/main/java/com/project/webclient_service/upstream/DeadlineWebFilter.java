@@ -0,0 +1,28 @@
+package com.project.webclient_service.upstream;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.server.reactive.ServerHttpRequest;
+import org.springframework.stereotype.Component;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import reactor.core.publisher.Mono;
+
+// Starts the deadline of every request in the reactive runtime. A client that disconnects cancels the
+// request's subscription, and with it the upstream calls nobody waits for anymore.
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.REACTIVE)
+@RequiredArgsConstructor
+public class DeadlineWebFilter implements WebFilter {
+
+    private final DeadlinePolicy deadlinePolicy;
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        ServerHttpRequest request = exchange.getRequest();
+        Deadline deadline = deadlinePolicy.deadlineFor(request.getPath().pathWithinApplication().value(),
+                request.getHeaders().getFirst(deadlinePolicy.header()));
+        return chain.filter(exchange).contextWrite(context -> context.put(Deadline.CONTEXT_KEY, deadline));
+    }
+}
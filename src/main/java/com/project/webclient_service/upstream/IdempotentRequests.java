@@ -0,0 +1,217 @@
+package com.project.webclient_service.upstream;
+
+import com.project.webclient_service.exception.DeadlineExceededException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.distribution.ValueAtPercentile;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Runs idempotent task manager reads with hedging, the circuit breaker and retries, under a total time
+// budget. A hedge is a second attempt started when the first one is slower than the route's observed
+// p95 latency; the first value wins and the other attempt is cancelled. Hedges are paid from a budget
+// that grows with the number of calls, so they never add more than the configured share of load.
+// Within a request the call also ends at the request's deadline, early enough for the caller's fallback.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class IdempotentRequests {
+
+    public static final String TASK_MANAGER_SERVICE = "taskManagerService";
+
+    // Fixed-point scale of the hedge budget
+    private static final long TOKEN = 1000;
+    private static final long P95_REFRESH_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, RouteLatency> routes = new ConcurrentHashMap<>();
+    private final Map<String, Duration> routeBudgets = new HashMap<>();
+    private final AtomicLong hedgeTokens = new AtomicLong();
+
+    // Overall limit for all attempts and backoff waits of one call
+    @Value("${webclient.retry.total-budget}")
+    private Duration totalBudget;
+
+    // Budgets of single routes as <route>=<budget>, for calls such as full listings that take longer
+    @Value("${webclient.retry.route-budgets}")
+    private String[] routeBudgetEntries;
+
+    // Part of the request's budget left to the caller for its fallback
+    @Value("${webclient.deadline.fallback-reserve}")
+    private Duration fallbackReserve;
+
+    @Value("${webclient.hedging.enabled}")
+    private boolean hedgingEnabled;
+
+    // Share of calls that may be hedged
+    @Value("${webclient.hedging.budget-ratio}")
+    private double hedgeBudgetRatio;
+
+    @Value("${webclient.hedging.min-delay}")
+    private Duration minHedgeDelay;
+
+    // Samples needed before the p95 of a route is trusted
+    @Value("${webclient.hedging.min-samples}")
+    private long minSamples;
+
+    private static final class RouteLatency {
+        private final Timer timer;
+        private final Counter hedges;
+        // Snapshots compute the percentiles, so the p95 is refreshed at most once per second
+        private volatile long p95Nanos;
+        private volatile long p95RefreshedAtNanos;
+
+        private RouteLatency(Timer timer, Counter hedges) {
+            this.timer = timer;
+            this.hedges = hedges;
+            this.p95RefreshedAtNanos = System.nanoTime() - P95_REFRESH_NANOS;
+        }
+
+        private long p95Nanos() {
+            long now = System.nanoTime();
+            if (now - p95RefreshedAtNanos >= P95_REFRESH_NANOS) {
+                ValueAtPercentile[] percentiles = timer.takeSnapshot().percentileValues();
+                p95Nanos = percentiles.length == 0 ? 0 : (long) percentiles[0].value(TimeUnit.NANOSECONDS);
+                p95RefreshedAtNanos = now;
+            }
+            return p95Nanos;
+        }
+    }
+
+    @PostConstruct
+    void parseRouteBudgets() {
+        for (String entry : routeBudgetEntries) {
+            int separator = entry.lastIndexOf('=');
+            if (separator < 0) {
+                throw new IllegalArgumentException("Expected <route>=<budget> in webclient.retry.route-budgets: " + entry);
+            }
+            routeBudgets.put(entry.substring(0, separator).trim(),
+                    DurationStyle.detectAndParse(entry.substring(separator + 1).trim()));
+        }
+    }
+
+    // The deadline is applied outside the circuit breaker, a client's short budget is not a task manager failure
+    public <T> Mono<T> execute(String route, Supplier<Mono<T>> call) {
+        Mono<T> attempts = hedged(route, call)
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreakerRegistry.circuitBreaker(TASK_MANAGER_SERVICE)))
+                .transformDeferred(RetryOperator.of(retryRegistry.retry(TASK_MANAGER_SERVICE)))
+                .timeout(routeBudgets.getOrDefault(route, totalBudget));
+        return Mono.deferContextual(context -> {
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return attempts;
+            }
+            Duration remaining = deadline.remaining().minus(fallbackReserve);
+            if (remaining.isNegative() || remaining.isZero()) {
+                return Mono.error(new DeadlineExceededException(route));
+            }
+            return attempts.timeout(remaining, Mono.error(() -> new DeadlineExceededException(route)));
+        });
+    }
+
+    private <T> Mono<T> hedged(String route, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            RouteLatency latency = routes.computeIfAbsent(route, this::register);
+            Duration hedgeDelay = hedgeDelay(latency);
+            if (hedgeDelay == null) {
+                return timed(latency, call);
+            }
+
+            // A primary that ends without a value before the hedge is due is not hedged, the retry takes over
+            AtomicReference<Throwable> primaryError = new AtomicReference<>();
+            Sinks.One<Boolean> primaryEnded = Sinks.one();
+            Mono<T> primary = timed(latency, call)
+                    .doOnError(error -> {
+                        primaryError.set(error);
+                        primaryEnded.tryEmitValue(true);
+                    })
+                    .doOnSuccess(value -> {
+                        if (value == null) {
+                            primaryEnded.tryEmitValue(true);
+                        }
+                    });
+            Mono<T> hedge = Mono.delay(hedgeDelay)
+                    .takeUntilOther(primaryEnded.asMono())
+                    .flatMap(tick -> {
+                        if (!tryAcquireHedge()) {
+                            return Mono.empty();
+                        }
+                        latency.hedges.increment();
+                        log.debug("Hedging call to {} after {} ms", route, hedgeDelay.toMillis());
+                        return timed(latency, call);
+                    });
+            // The first value wins. Once neither attempt has one, the outcome is the primary's.
+            return Mono.firstWithValue(primary, hedge)
+                    .onErrorResume(error -> primaryError.get() != null ? Mono.error(primaryError.get()) : Mono.empty());
+        });
+    }
+
+    // Cancelled attempts, mostly the slow ones a hedge overtook, are recorded with the time they ran so far.
+    // Leaving them out would keep the p95 below the latencies that needed a hedge.
+    private <T> Mono<T> timed(RouteLatency latency, Supplier<Mono<T>> call) {
+        return Mono.defer(() -> {
+            long started = System.nanoTime();
+            Runnable record = () -> latency.timer.record(System.nanoTime() - started, TimeUnit.NANOSECONDS);
+            return call.get()
+                    .doOnSuccess(value -> record.run())
+                    .doOnCancel(record);
+        });
+    }
+
+    private Duration hedgeDelay(RouteLatency latency) {
+        hedgeTokens.getAndUpdate(tokens -> Math.min(10 * TOKEN, tokens + (long) (hedgeBudgetRatio * TOKEN)));
+        if (!hedgingEnabled || latency.timer.count() < minSamples) {
+            return null;
+        }
+        return Duration.ofNanos(Math.max(latency.p95Nanos(), minHedgeDelay.toNanos()));
+    }
+
+    private boolean tryAcquireHedge() {
+        while (true) {
+            long tokens = hedgeTokens.get();
+            if (tokens < TOKEN) {
+                return false;
+            }
+            if (hedgeTokens.compareAndSet(tokens, tokens - TOKEN)) {
+                return true;
+            }
+        }
+    }
+
+    private RouteLatency register(String route) {
+        Timer timer = Timer.builder("webclient.upstream.latency")
+                .description("Latency of successful and cancelled task manager read attempts")
+                .tag("route", route)
+                .publishPercentiles(0.95)
+                .distributionStatisticExpiry(Duration.ofMinutes(1))
+                .register(meterRegistry);
+        Counter hedges = Counter.builder("webclient.upstream.hedges")
+                .description("Hedged attempts started after the first attempt exceeded the p95 latency")
+                .tag("route", route)
+                .register(meterRegistry);
+        return new RouteLatency(timer, hedges);
+    }
+}
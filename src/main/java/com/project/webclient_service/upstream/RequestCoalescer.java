@@ -0,0 +1,62 @@
+package com.project.webclient_service.upstream;
+
+import com.project.webclient_service.exception.DeadlineExceededException;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.Supplier;
+
+// Single-flight deduplication of identical upstream calls. Concurrent callers with the same key
+// subscribe to one shared call, and the key is released as soon as that call terminates. The shared
+// call runs without a request deadline, every caller stops waiting at its own deadline instead.
+@Component
+@Slf4j
+public class RequestCoalescer {
+
+    private final ConcurrentMap<String, Mono<?>> inFlight = new ConcurrentHashMap<>();
+
+    // Part of the request's budget left to the caller for its fallback
+    @Value("${webclient.deadline.fallback-reserve}")
+    private Duration fallbackReserve;
+
+    @SuppressWarnings("unchecked")
+    public <T> Mono<T> coalesce(String key, Supplier<Mono<T>> call) {
+        return Mono.deferContextual(context -> {
+            Mono<T> shared = (Mono<T>) inFlight.computeIfAbsent(key, k -> share(k, call.get()));
+            Deadline deadline = Deadline.from(context);
+            if (deadline == null) {
+                return shared;
+            }
+            Duration remaining = deadline.remaining().minus(fallbackReserve);
+            if (remaining.isNegative() || remaining.isZero()) {
+                return Mono.error(new DeadlineExceededException(key));
+            }
+            return shared.timeout(remaining, Mono.error(() -> new DeadlineExceededException(key)));
+        });
+    }
+
+    private <T> Mono<T> share(String key, Mono<T> call) {
+        log.debug("Starting shared upstream call for key: {}", key);
+        AtomicReference<Mono<T>> self = new AtomicReference<>();
+        // The upstream call is cancelled only when every caller has cancelled
+        Mono<T> shared = call
+                .contextWrite(context -> context.delete(Deadline.CONTEXT_KEY))
+                .doFinally(signal -> inFlight.remove(key, self.get()))
+                .flux()
+                .publish()
+                .refCount()
+                .singleOrEmpty();
+        self.set(shared);
+        return shared;
+    }
+
+    public int inFlightCount() {
+        return inFlight.size();
+    }
+}
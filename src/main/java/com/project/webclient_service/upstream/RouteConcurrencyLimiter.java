@@ -0,0 +1,123 @@
+package com.project.webclient_service.upstream;
+
+import com.project.webclient_service.exception.UpstreamOverloadedException;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.ExchangeFilterFunction;
+import org.springframework.web.reactive.function.client.ExchangeFunction;
+import reactor.core.publisher.Mono;
+
+import java.util.Arrays;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.stream.Collectors;
+
+// WebClient filter that gives every upstream route its own adaptive concurrency limit. Calls over the
+// limit fail immediately with UpstreamOverloadedException instead of queueing for a connection. A slot
+// is held until the response body has been consumed.
+@Component
+@RequiredArgsConstructor
+@Slf4j
+public class RouteConcurrencyLimiter implements ExchangeFilterFunction {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Route> routes = new ConcurrentHashMap<>();
+
+    @Value("${webclient.limiter.enabled}")
+    private boolean enabled;
+
+    @Value("${webclient.limiter.initial-limit}")
+    private int initialLimit;
+
+    @Value("${webclient.limiter.min-limit}")
+    private int minLimit;
+
+    @Value("${webclient.limiter.max-limit}")
+    private int maxLimit;
+
+    @Value("${webclient.limiter.backoff-ratio}")
+    private double backoffRatio;
+
+    // Latency above baseline times this tolerance counts as a degraded upstream
+    @Value("${webclient.limiter.latency-tolerance}")
+    private double latencyTolerance;
+
+    private record Route(AdaptiveConcurrencyLimiter limiter, Counter rejected) {
+    }
+
+    @Override
+    public Mono<ClientResponse> filter(ClientRequest request, ExchangeFunction next) {
+        if (!enabled) {
+            return next.exchange(request);
+        }
+
+        String routeName = routeOf(request);
+        Route route = routes.computeIfAbsent(routeName, this::register);
+        return Mono.defer(() -> {
+            AdaptiveConcurrencyLimiter limiter = route.limiter();
+            if (!limiter.tryAcquire()) {
+                route.rejected().increment();
+                log.warn("Shedding call to {}: {} calls in flight at limit {}", routeName, limiter.getInFlight(), limiter.getLimit());
+                return Mono.error(new UpstreamOverloadedException(routeName, limiter.getLimit()));
+            }
+
+            long started = System.nanoTime();
+            AtomicBoolean released = new AtomicBoolean();
+            return next.exchange(request)
+                    .map(response -> {
+                        if (response.statusCode().is5xxServerError() || response.statusCode().value() == 429) {
+                            release(released, limiter::onDropped);
+                            return response;
+                        }
+                        return response.mutate()
+                                .body(body -> body
+                                        .doOnComplete(() -> release(released, () -> limiter.onSuccess(System.nanoTime() - started)))
+                                        .doOnError(error -> release(released, limiter::onDropped))
+                                        .doOnCancel(() -> release(released, limiter::onIgnored)))
+                                .build();
+                    })
+                    .doOnError(error -> release(released, limiter::onDropped))
+                    .doOnCancel(() -> release(released, limiter::onIgnored));
+        });
+    }
+
+    private static void release(AtomicBoolean released, Runnable outcome) {
+        if (released.compareAndSet(false, true)) {
+            outcome.run();
+        }
+    }
+
+    private Route register(String routeName) {
+        AdaptiveConcurrencyLimiter limiter = new AdaptiveConcurrencyLimiter(initialLimit, minLimit, maxLimit, backoffRatio, latencyTolerance);
+        Gauge.builder("webclient.upstream.concurrency.limit", limiter, AdaptiveConcurrencyLimiter::getLimit)
+                .description("Current adaptive concurrency limit of the upstream route")
+                .tag("route", routeName)
+                .register(meterRegistry);
+        Gauge.builder("webclient.upstream.concurrency.in-flight", limiter, AdaptiveConcurrencyLimiter::getInFlight)
+                .description("Calls in flight to the upstream route")
+                .tag("route", routeName)
+                .register(meterRegistry);
+        Counter rejected = Counter.builder("webclient.upstream.concurrency.rejected")
+                .description("Calls shed because the upstream route was at its concurrency limit")
+                .tag("route", routeName)
+                .register(meterRegistry);
+        log.info("Created concurrency limiter for {} with initial limit {}", routeName, initialLimit);
+        return new Route(limiter, rejected);
+    }
+
+    // Method and path with numeric segments collapsed, so /user-api/delete-user/7 and /8 share a limit
+    static String routeOf(ClientRequest request) {
+        String path = Arrays.stream(request.url().getPath().split("/"))
+                .map(segment -> !segment.isEmpty() && segment.chars().allMatch(Character::isDigit) ? "{id}" : segment)
+                .collect(Collectors.joining("/"));
+        return request.method().name() + " " + path;
+    }
+}
@@ -0,0 +1,45 @@
+package com.project.webclient_service.upstream;
+
+import jakarta.servlet.http.HttpServletRequest;
+import lombok.RequiredArgsConstructor;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+// Starts the deadline of every request in the mvc runtime. Servlet filters cannot reach the Reactor
+// context, so the publishers returned by the controllers carry the deadline instead.
+@Aspect
+@Component
+@ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+@RequiredArgsConstructor
+public class ServletDeadlineAspect {
+
+    private final DeadlinePolicy deadlinePolicy;
+
+    @Around("@within(org.springframework.web.bind.annotation.RestController)")
+    public Object withDeadline(ProceedingJoinPoint joinPoint) throws Throwable {
+        Object result = joinPoint.proceed();
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes attributes)) {
+            return result;
+        }
+
+        HttpServletRequest request = attributes.getRequest();
+        Deadline deadline = deadlinePolicy.deadlineFor(request.getRequestURI().substring(request.getContextPath().length()),
+                request.getHeader(deadlinePolicy.header()));
+        if (result instanceof Mono<?> mono) {
+            return mono.contextWrite(context -> context.put(Deadline.CONTEXT_KEY, deadline));
+        }
+        if (result instanceof ResponseEntity<?> entity && entity.getBody() instanceof Flux<?> body) {
+            return new ResponseEntity<>(body.contextWrite(context -> context.put(Deadline.CONTEXT_KEY, deadline)),
+                    entity.getHeaders(), entity.getStatusCode());
+        }
+        return result;
+    }
+}
@@ -0,0 +1,8 @@
+package com.project.webclient_service.upstream;
+
+public enum WireFormat {
+    // JSON requests and responses, supported by every task manager version
+    JSON,
+    // Smile request bodies, and Smile responses preferred with JSON still accepted
+    SMILE
+}
@@ -1,13 +1,37 @@
 package com.project.webclient_service;
 
+import com.project.webclient_service.exception.DeadlineExceededException;
+import com.project.webclient_service.exception.UpstreamOverloadedException;
+import com.project.webclient_service.upstream.IdempotentRequests;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
 import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.context.SpringBootTest;
 
+import java.util.concurrent.TimeoutException;
+
+import static org.junit.jupiter.api.Assertions.*;
+
 @SpringBootTest
 class WebclientServiceApplicationTests {
 
+	@Autowired
+	private CircuitBreakerRegistry circuitBreakerRegistry;
+
 	@Test
 	void contextLoads() {
 	}
 
+	@Test
+	void circuitBreakerIgnoresMissedDeadlinesButRecordsTimeouts() {
+		CircuitBreakerConfig config = circuitBreakerRegistry
+				.circuitBreaker(IdempotentRequests.TASK_MANAGER_SERVICE).getCircuitBreakerConfig();
+
+		assertTrue(config.getIgnoreExceptionPredicate().test(new DeadlineExceededException("GET /task-api/list-tasks")));
+		assertTrue(config.getIgnoreExceptionPredicate().test(new UpstreamOverloadedException("GET /task-api/list-tasks", 10)));
+		assertFalse(config.getIgnoreExceptionPredicate().test(new TimeoutException()));
+		assertTrue(config.getRecordExceptionPredicate().test(new TimeoutException()));
+	}
+
 }
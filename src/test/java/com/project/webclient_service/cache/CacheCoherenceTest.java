@@ -0,0 +1,99 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+import java.util.HashSet;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheCoherenceTest {
+
+    private final EntityCache<TaskResponseDTO> taskCache =
+            new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100, Duration.ofMinutes(5),
+                    ReadMode.CACHE_FIRST, Duration.ofMinutes(1));
+    private final EntityCache<UserResponseDTO> userCache =
+            new EntityCache<>("userCache", UserResponseDTO::getUserId, 100, Duration.ofMinutes(5),
+                    ReadMode.CACHE_FIRST, Duration.ofMinutes(1));
+    private final TaskIndex taskIndex = new TaskIndex();
+    private final TaskOwnerIndex taskOwnerIndex = new TaskOwnerIndex();
+    private final SharedCacheStore sharedCacheStore = new NoopSharedCacheStore();
+    private final CacheCoherence coherence = new CacheCoherence(taskCache, userCache, taskIndex, taskOwnerIndex,
+            new TieredCache<>(taskCache, new TaskSnapshotCodec(), sharedCacheStore, "test", "node", Duration.ofMinutes(5)),
+            new TieredCache<>(userCache, new UserSnapshotCodec(), sharedCacheStore, "test", "node", Duration.ofMinutes(5)),
+            new EntityReplica<>(TaskResponseDTO::getTaskId, EntityHashes::task),
+            new EntityReplica<>(UserResponseDTO::getUserId, EntityHashes::user));
+
+    @BeforeEach
+    void setUp() {
+        taskCache.addListener(taskIndex);
+        userCache.addListener(taskOwnerIndex);
+        taskCache.put(task(1L, 42L));
+        userCache.put(user(42L, 1L));
+        userCache.put(user(7L));
+    }
+
+    @Test
+    void writeThroughMovesTaskBetweenCachedUsers() {
+        ReflectionTestUtils.setField(coherence, "writeMode", WriteMode.WRITE_THROUGH);
+
+        coherence.taskWritten(task(1L, 7L));
+
+        assertEquals(7L, taskCache.peek(1L).getUserId());
+        assertEquals(Set.of(), userCache.peek(42L).getTaskIds());
+        assertEquals(Set.of(1L), userCache.peek(7L).getTaskIds());
+    }
+
+    @Test
+    void writeThroughFindsThePreviousOwnerOfAnUncachedTask() {
+        ReflectionTestUtils.setField(coherence, "writeMode", WriteMode.WRITE_THROUGH);
+        taskCache.evict(1L);
+
+        coherence.taskWritten(task(1L, 7L));
+
+        assertEquals(Set.of(), userCache.peek(42L).getTaskIds());
+        assertEquals(Set.of(1L), userCache.peek(7L).getTaskIds());
+        assertArrayEquals(new long[]{7L}, taskOwnerIndex.userIdsForTask(1L));
+    }
+
+    @Test
+    void invalidateDropsTaskAndBothOwners() {
+        ReflectionTestUtils.setField(coherence, "writeMode", WriteMode.INVALIDATE);
+
+        coherence.taskWritten(task(1L, 7L));
+
+        assertNull(taskCache.peek(1L));
+        assertNull(userCache.peek(42L));
+        assertNull(userCache.peek(7L));
+    }
+
+    @Test
+    void userDeletionInvalidatesTheirTasks() {
+        ReflectionTestUtils.setField(coherence, "writeMode", WriteMode.WRITE_THROUGH);
+
+        coherence.userDeleted(42L);
+
+        assertNull(userCache.peek(42L));
+        assertNull(taskCache.peek(1L));
+        assertNotNull(userCache.peek(7L));
+    }
+
+    private static TaskResponseDTO task(Long id, Long userId) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setUserId(userId);
+        return task;
+    }
+
+    private static UserResponseDTO user(Long id, Long... taskIds) {
+        UserResponseDTO user = new UserResponseDTO();
+        user.setUserId(id);
+        user.setTaskIds(new HashSet<>(Set.of(taskIds)));
+        return user;
+    }
+}
@@ -0,0 +1,83 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.dto.UserResponseDTO;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CacheSnapshotFileTest {
+
+    @TempDir
+    Path directory;
+
+    @Test
+    void roundTripsTasksAndUsers() throws Exception {
+        CacheSnapshotFile<TaskResponseDTO> tasks = new CacheSnapshotFile<>(directory.resolve("tasks.snapshot"), new TaskSnapshotCodec());
+        CacheSnapshotFile<UserResponseDTO> users = new CacheSnapshotFile<>(directory.resolve("users.snapshot"), new UserSnapshotCodec());
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(1L);
+        task.setTaskTitle("Ünïcode title");
+        task.setTaskDueDate(LocalDateTime.of(2024, 9, 9, 9, 0, 0, 500));
+        task.setUserId(42L);
+        UserResponseDTO user = new UserResponseDTO();
+        user.setUserId(42L);
+        user.setUserEmail("user@example.com");
+        user.setTaskIds(Set.of(1L, 2L));
+
+        tasks.write(List.of(task));
+        users.write(List.of(user));
+
+        TaskResponseDTO restoredTask = tasks.read(Duration.ofHours(1)).get(0);
+        assertEquals("Ünïcode title", restoredTask.getTaskTitle());
+        assertNull(restoredTask.getTaskDescription());
+        assertEquals(task.getTaskDueDate(), restoredTask.getTaskDueDate());
+        assertEquals(42L, restoredTask.getUserId());
+        UserResponseDTO restoredUser = users.read(Duration.ofHours(1)).get(0);
+        assertEquals("user@example.com", restoredUser.getUserEmail());
+        assertNull(restoredUser.getFullName());
+        assertEquals(Set.of(1L, 2L), restoredUser.getTaskIds());
+    }
+
+    @Test
+    void ignoresCorruptedAndExpiredSnapshots() throws Exception {
+        Path file = directory.resolve("tasks.snapshot");
+        CacheSnapshotFile<TaskResponseDTO> snapshot = new CacheSnapshotFile<>(file, new TaskSnapshotCodec());
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(1L);
+        task.setTaskTitle("title");
+        snapshot.write(List.of(task));
+
+        assertEquals(1, snapshot.read(Duration.ofHours(1)).size());
+        assertTrue(snapshot.read(Duration.ofMillis(-1)).isEmpty());
+
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 1] ^= 1;
+        Files.write(file, bytes);
+        assertTrue(snapshot.read(Duration.ofHours(1)).isEmpty());
+    }
+
+    @Test
+    void restoredEntriesAreStaleUntilFetchedAgain() {
+        EntityCache<TaskResponseDTO> cache = new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100,
+                Duration.ofMinutes(5), ReadMode.CACHE_FIRST, Duration.ofMinutes(1));
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(1L);
+
+        cache.restore(List.of(task));
+        assertNotNull(cache.peek(1L));
+        assertNull(cache.getIfFresh(1L));
+        assertFalse(cache.isComplete());
+
+        cache.put(task);
+        assertNotNull(cache.getIfFresh(1L));
+    }
+}
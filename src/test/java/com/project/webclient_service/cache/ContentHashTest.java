@@ -0,0 +1,88 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ContentHashTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 9, 9, 9, 0);
+
+    private final EntityCache<TaskResponseDTO> cache =
+            new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100, Duration.ofMinutes(5),
+                    ReadMode.NETWORK_FIRST, Duration.ofMinutes(1));
+    private final ContentHash<TaskResponseDTO> contentHash = new ContentHash<>(EntityHashes::task);
+
+    @BeforeEach
+    void registerHash() {
+        cache.addListener(contentHash);
+    }
+
+    @Test
+    void matchesHashOfListingInAnyOrder() {
+        List<TaskResponseDTO> listing = List.of(task(1L, "Write report"), task(2L, "Review"), task(3L, "Deploy"));
+        cache.replaceAll(listing, cache.writeEpoch());
+
+        assertEquals(contentHash.of(listing), contentHash.value());
+        assertEquals(contentHash.of(List.of(listing.get(2), listing.get(0), listing.get(1))), contentHash.value());
+    }
+
+    @Test
+    void followsUpdatesAndRemovals() {
+        cache.putAll(List.of(task(1L, "Write report"), task(2L, "Review")));
+        long original = contentHash.value();
+
+        cache.put(task(2L, "Review again"));
+        assertNotEquals(original, contentHash.value());
+        assertEquals(contentHash.of(List.of(task(1L, "Write report"), task(2L, "Review again"))), contentHash.value());
+
+        cache.put(task(2L, "Review"));
+        assertEquals(original, contentHash.value());
+
+        cache.evict(1L);
+        cache.evict(2L);
+        assertEquals(0, contentHash.value());
+    }
+
+    @Test
+    void distinguishesEveryField() {
+        TaskResponseDTO task = task(1L, "Write report");
+        long hash = EntityHashes.task(task);
+
+        TaskResponseDTO otherDueDate = task(1L, "Write report");
+        otherDueDate.setTaskDueDate(MONDAY.plusNanos(1));
+        TaskResponseDTO otherUser = task(1L, "Write report");
+        otherUser.setUserId(8L);
+        TaskResponseDTO noDescription = task(1L, "Write report");
+        noDescription.setTaskDescription(null);
+
+        assertEquals(hash, EntityHashes.task(task(1L, "Write report")));
+        assertNotEquals(hash, EntityHashes.task(task(2L, "Write report")));
+        assertNotEquals(hash, EntityHashes.task(otherDueDate));
+        assertNotEquals(hash, EntityHashes.task(otherUser));
+        assertNotEquals(hash, EntityHashes.task(noDescription));
+    }
+
+    @Test
+    void listingEtagIsWeakQuotedHash() {
+        Listing<TaskResponseDTO> listing = new Listing<>(List.of(), 255L, null);
+
+        assertEquals("W/\"ff\"", listing.etag());
+    }
+
+    private static TaskResponseDTO task(Long id, String title) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskTitle(title);
+        task.setTaskDescription("Description of " + title);
+        task.setTaskDueDate(MONDAY);
+        task.setUserId(7L);
+        return task;
+    }
+}
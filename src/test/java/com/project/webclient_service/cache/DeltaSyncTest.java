@@ -0,0 +1,126 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.upstream.IdempotentRequests;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeltaSyncTest {
+
+    private final EntityReplica<TaskResponseDTO> replica = new EntityReplica<>(TaskResponseDTO::getTaskId, EntityHashes::task);
+    private final ContentHash<TaskResponseDTO> contentHash = new ContentHash<>(EntityHashes::task);
+    private final EntityCache<TaskResponseDTO> cache =
+            new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100, Duration.ofMinutes(5),
+                    ReadMode.CACHE_FIRST, Duration.ofMinutes(1));
+    // Responses per request path and query, answered in order
+    private final Map<String, Queue<ClientResponse>> responses = new HashMap<>();
+    private final List<String> requests = new ArrayList<>();
+
+    @Test
+    void appliesChangesSinceTheWatermark() {
+        DeltaSync<TaskResponseDTO> sync = deltaSync(SyncMode.CHANGES);
+        respond("/task-api/list-task-changes", HttpStatus.OK,
+                "{\"changed\":[" + task(1, "Write report") + "," + task(2, "Review") + "],\"watermark\":\"5\"}");
+        respond("/task-api/list-task-changes?since=5", HttpStatus.OK,
+                "{\"changed\":[" + task(3, "Deploy") + "],\"deletedIds\":[1],\"watermark\":\"8\"}");
+
+        StepVerifier.create(sync.sync()).expectNextCount(1).verifyComplete();
+        StepVerifier.create(sync.sync())
+                .assertNext(listing -> assertEquals(List.of(2L, 3L), ids(listing.values())))
+                .verifyComplete();
+
+        assertEquals("8", replica.watermark());
+        assertEquals(List.of(2L, 3L), ids(cache.values()).stream().sorted().toList());
+        assertTrue(cache.isComplete());
+    }
+
+    @Test
+    void synchronizesAllEntitiesWhenTheWatermarkExpired() {
+        DeltaSync<TaskResponseDTO> sync = deltaSync(SyncMode.CHANGES);
+        respond("/task-api/list-task-changes", HttpStatus.OK, "{\"changed\":[" + task(1, "Write report") + "],\"watermark\":\"5\"}");
+        respond("/task-api/list-task-changes?since=5", HttpStatus.GONE, "");
+        respond("/task-api/list-task-changes", HttpStatus.OK, "{\"changed\":[" + task(2, "Review") + "],\"watermark\":\"9\"}");
+
+        StepVerifier.create(sync.sync()).expectNextCount(1).verifyComplete();
+        StepVerifier.create(sync.sync())
+                .assertNext(listing -> assertEquals(List.of(2L), ids(listing.values())))
+                .verifyComplete();
+
+        assertEquals("9", replica.watermark());
+        assertNull(cache.peek(1L));
+    }
+
+    @Test
+    void fetchesOnlyTheChangedDigests() {
+        DeltaSync<TaskResponseDTO> sync = deltaSync(SyncMode.DIGEST);
+        respond("/task-api/list-task-digests", HttpStatus.OK, "[{\"id\":1,\"version\":\"a\"},{\"id\":2,\"version\":\"a\"}]");
+        respond("/task-api/list-tasks", HttpStatus.OK, "[" + task(1, "Write report") + "," + task(2, "Review") + "]");
+        respond("/task-api/list-task-digests", HttpStatus.OK, "[{\"id\":2,\"version\":\"b\"}]");
+        respond("/task-api/list-task?taskId=2", HttpStatus.OK, task(2, "Review again"));
+
+        StepVerifier.create(sync.sync()).expectNextCount(1).verifyComplete();
+        StepVerifier.create(sync.sync())
+                .assertNext(listing -> assertEquals("Review again", listing.values().get(0).getTaskTitle()))
+                .verifyComplete();
+
+        assertEquals(List.of("/task-api/list-task-digests", "/task-api/list-tasks",
+                "/task-api/list-task-digests", "/task-api/list-task?taskId=2"), requests);
+        assertEquals(List.of(2L), ids(cache.values()));
+    }
+
+    private DeltaSync<TaskResponseDTO> deltaSync(SyncMode mode) {
+        cache.addListener(contentHash);
+        WebClient webClient = WebClient.builder()
+                .exchangeFunction(request -> {
+                    String path = request.url().getRawPath()
+                            + (request.url().getRawQuery() == null ? "" : "?" + request.url().getRawQuery());
+                    requests.add(path);
+                    return Mono.just(responses.get(path).remove());
+                })
+                .build();
+        // Without retries every response is consumed once
+        IdempotentRequests idempotentRequests = new IdempotentRequests(CircuitBreakerRegistry.ofDefaults(),
+                RetryRegistry.of(RetryConfig.custom().maxAttempts(1).build()), new SimpleMeterRegistry());
+        ReflectionTestUtils.setField(idempotentRequests, "totalBudget", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(idempotentRequests, "fallbackReserve", Duration.ofMillis(50));
+        return new DeltaSync<>("/task-api", "task", TaskResponseDTO.class, replica, cache, contentHash,
+                webClient, idempotentRequests, mode, Duration.ofSeconds(1), 10, 2);
+    }
+
+    private void respond(String path, HttpStatus status, String body) {
+        responses.computeIfAbsent(path, key -> new ArrayDeque<>())
+                .add(ClientResponse.create(status)
+                        .header(HttpHeaders.CONTENT_TYPE, MediaType.APPLICATION_JSON_VALUE)
+                        .body(body)
+                        .build());
+    }
+
+    private static String task(long id, String title) {
+        return "{\"taskId\":" + id + ",\"taskTitle\":\"" + title + "\",\"userId\":7}";
+    }
+
+    private static List<Long> ids(List<TaskResponseDTO> tasks) {
+        return tasks.stream().map(TaskResponseDTO::getTaskId).toList();
+    }
+}
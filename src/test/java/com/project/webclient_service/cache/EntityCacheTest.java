@@ -0,0 +1,145 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityCacheTest {
+
+    private final EntityCache<TaskResponseDTO> cache =
+            new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100, Duration.ofMinutes(5),
+                    ReadMode.CACHE_FIRST, Duration.ofMinutes(1));
+
+    @Test
+    void putAndGetByEntityId() {
+        cache.putAll(List.of(task(1L), task(2L)));
+
+        assertEquals(1L, cache.get(1L).getTaskId());
+        assertEquals(2, cache.values().size());
+        assertNull(cache.get(3L));
+        assertEquals(1, cache.stats().hitCount());
+        assertEquals(1, cache.stats().missCount());
+    }
+
+    @Test
+    void publishesHitMissAndSizeMeters() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+        cache.put(task(1L));
+
+        cache.get(1L);
+        cache.get(2L);
+        cache.peek(1L);
+
+        assertEquals(1, registry.get("cache.gets").tag("cache", "taskCache").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.gets").tag("cache", "taskCache").tag("result", "miss").functionCounter().count());
+        assertEquals(1, registry.get("cache.size").tag("cache", "taskCache").gauge().value());
+    }
+
+    @Test
+    void publishesFallbackOutcomes() {
+        SimpleMeterRegistry registry = new SimpleMeterRegistry();
+        cache.bindTo(registry);
+
+        cache.recordFallback(true);
+        cache.recordFallback(true);
+        cache.recordFallback(false);
+
+        assertEquals(2, registry.get("cache.fallbacks").tag("cache", "taskCache").tag("result", "hit").functionCounter().count());
+        assertEquals(1, registry.get("cache.fallbacks").tag("cache", "taskCache").tag("result", "miss").functionCounter().count());
+    }
+
+    @Test
+    void cacheFirstReadServesFreshEntryWithoutLoading() {
+        cache.put(task(1L));
+
+        TaskResponseDTO task = cache.read(1L, () -> Mono.error(new IllegalStateException("loader called"))).block();
+
+        assertEquals(1L, task.getTaskId());
+    }
+
+    @Test
+    void cacheFirstReadLoadsOnMiss() {
+        TaskResponseDTO task = cache.read(7L, () -> Mono.just(task(7L))).block();
+
+        assertEquals(7L, task.getTaskId());
+    }
+
+    @Test
+    void evictRemovesEntry() {
+        cache.put(task(1L));
+        cache.evict(1L);
+
+        assertNull(cache.get(1L));
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    void replaceAllKeepsEntriesWrittenWhileTheListingWasInFlight() {
+        cache.putAll(List.of(task(1L), task(2L)));
+        long writeEpoch = cache.writeEpoch();
+        List<TaskResponseDTO> listing = List.of(task(1L), task(2L));
+        TaskResponseDTO updated = task(1L);
+        updated.setTaskTitle("Updated");
+        cache.put(updated);
+        cache.put(task(3L));
+        cache.evict(2L);
+
+        cache.replaceAll(listing, writeEpoch);
+
+        assertEquals("Updated", cache.peek(1L).getTaskTitle());
+        assertNull(cache.peek(2L));
+        assertNotNull(cache.peek(3L));
+        assertTrue(cache.isComplete());
+
+        // A listing fetched after the writes replaces them as usual
+        cache.replaceAll(List.of(task(1L)), cache.writeEpoch());
+
+        assertEquals("Task 1", cache.peek(1L).getTaskTitle());
+        assertNull(cache.peek(3L));
+    }
+
+    @Test
+    void freshnessCheckIsNotRecordedAsRead() {
+        cache.put(task(1L));
+
+        assertTrue(cache.isFresh(1L));
+        assertFalse(cache.isFresh(2L));
+        assertEquals(0, cache.stats().requestCount());
+    }
+
+    @Test
+    void entriesWithoutIdAreIgnored() {
+        cache.put(task(null));
+
+        assertTrue(cache.isEmpty());
+    }
+
+    @Test
+    void hottestIdsFollowReadFrequency() {
+        LongStream.rangeClosed(1, 80).forEach(id -> cache.put(task(id)));
+        // Drains the pending writes, Caffeine starts the frequency sketch once the cache is half full
+        cache.hottestIds(1);
+        // Reads are recorded through a bounded buffer, so only a few are made before draining it
+        IntStream.range(0, 8).forEach(i -> cache.get(7L));
+        IntStream.range(0, 4).forEach(i -> cache.get(3L));
+
+        assertEquals(Set.of(7L, 3L), Set.copyOf(cache.hottestIds(2)));
+    }
+
+    private static TaskResponseDTO task(Long id) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskTitle("Task " + id);
+        return task;
+    }
+}
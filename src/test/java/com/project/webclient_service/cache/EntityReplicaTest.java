@@ -0,0 +1,94 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class EntityReplicaTest {
+
+    private final EntityReplica<TaskResponseDTO> replica = new EntityReplica<>(TaskResponseDTO::getTaskId, EntityHashes::task);
+    private final ContentHash<TaskResponseDTO> contentHash = new ContentHash<>(EntityHashes::task);
+
+    @Test
+    void appliesChangesToTheListing() {
+        replica.replace(List.of(task(1L, "Write report"), task(2L, "Review")), "5", Map.of());
+        Listing<TaskResponseDTO> loaded = replica.listing();
+
+        replica.apply(List.of(task(2L, "Review again"), task(3L, "Deploy")), List.of(1L), "8", Map.of());
+
+        List<TaskResponseDTO> expected = List.of(task(2L, "Review again"), task(3L, "Deploy"));
+        assertEquals(List.of(2L, 3L), replica.listing().values().stream().map(TaskResponseDTO::getTaskId).toList());
+        assertEquals(contentHash.of(expected), replica.listing().contentHash());
+        assertEquals("8", replica.watermark());
+        assertEquals(2, loaded.values().size());
+    }
+
+    @Test
+    void keepsTheListingWhenNothingChanged() {
+        replica.replace(List.of(task(1L, "Write report")), "5", Map.of());
+        Listing<TaskResponseDTO> loaded = replica.listing();
+
+        replica.apply(List.of(), List.of(), "6", Map.of());
+
+        assertSame(loaded, replica.listing());
+        assertEquals("6", replica.watermark());
+    }
+
+    @Test
+    void diffsVersionsOfAppliedEntitiesOnly() {
+        replica.replace(List.of(task(1L, "Write report"), task(2L, "Review")), null, Map.of(1L, "a", 2L, "a"));
+
+        // Task 3 failed to load, so it stays changed until it is applied
+        replica.apply(List.of(task(2L, "Review again")), List.of(), null, Map.of(1L, "a", 2L, "b", 3L, "a"));
+        EntityReplica.Diff diff = replica.diff(Map.of(2L, "b", 3L, "a"));
+
+        assertEquals(List.of(3L), diff.changedIds());
+        assertEquals(List.of(1L), diff.deletedIds());
+    }
+
+    @Test
+    void treatsEntitiesWithoutVersionAsChanged() {
+        replica.replace(List.of(task(1L, "Write report")), null, Map.of(1L, "a"));
+        Map<Long, String> upstreamVersions = new HashMap<>();
+        upstreamVersions.put(1L, null);
+
+        assertEquals(List.of(1L), replica.diff(upstreamVersions).changedIds());
+    }
+
+    @Test
+    void replacingWithAnEmptyListingEmptiesTheReplica() {
+        replica.replace(List.of(task(1L, "Write report")), "5", Map.of());
+        replica.listing();
+
+        replica.replace(List.of(), "6", Map.of());
+
+        assertEquals(List.of(), replica.listing().values());
+        assertEquals(0, replica.contentHash());
+    }
+
+    @Test
+    void expiresAfterWrites() {
+        assertFalse(replica.isSyncedWithin(Duration.ofMinutes(1)));
+
+        replica.replace(List.of(task(1L, "Write report")), "5", Map.of());
+        assertTrue(replica.isSyncedWithin(Duration.ofMinutes(1)));
+
+        replica.expire();
+        assertFalse(replica.isSyncedWithin(Duration.ofMinutes(1)));
+        assertTrue(replica.isLoaded());
+    }
+
+    private static TaskResponseDTO task(Long id, String title) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskTitle(title);
+        task.setUserId(7L);
+        return task;
+    }
+}
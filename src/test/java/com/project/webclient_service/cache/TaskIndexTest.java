@@ -0,0 +1,65 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TaskIndexTest {
+
+    private static final LocalDateTime MONDAY = LocalDateTime.of(2024, 9, 9, 9, 0);
+
+    private final EntityCache<TaskResponseDTO> cache =
+            new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100, Duration.ofMinutes(5),
+                    ReadMode.NETWORK_FIRST, Duration.ofMinutes(1));
+    private final TaskIndex index = new TaskIndex();
+
+    @BeforeEach
+    void registerIndex() {
+        cache.addListener(index);
+    }
+
+    @Test
+    void indexesTasksByUserAndDueDate() {
+        cache.putAll(List.of(task(1L, 42L, MONDAY.plusDays(2)), task(2L, 42L, MONDAY), task(3L, 7L, MONDAY.plusDays(9))));
+
+        assertArrayEquals(new long[]{1L, 2L}, index.taskIdsForUser(42L));
+        assertArrayEquals(new long[]{2L, 1L}, index.taskIdsDueBetween(MONDAY, MONDAY.plusWeeks(1)));
+        assertArrayEquals(new long[]{3L}, index.taskIdsDueBetween(MONDAY.plusWeeks(1), null));
+    }
+
+    @Test
+    void updateMovesTaskBetweenUsersAndDueDates() {
+        cache.put(task(1L, 42L, MONDAY));
+        cache.put(task(1L, 7L, MONDAY.plusWeeks(2)));
+
+        assertArrayEquals(new long[0], index.taskIdsForUser(42L));
+        assertArrayEquals(new long[]{1L}, index.taskIdsForUser(7L));
+        assertArrayEquals(new long[0], index.taskIdsDueBetween(MONDAY, MONDAY.plusWeeks(1)));
+        assertEquals(1, index.userCount());
+    }
+
+    @Test
+    void evictionAndReplaceAllRemoveIndexEntries() {
+        cache.putAll(List.of(task(1L, 42L, MONDAY), task(2L, 42L, MONDAY)));
+        cache.evict(1L);
+        assertArrayEquals(new long[]{2L}, index.taskIdsForUser(42L));
+
+        cache.replaceAll(List.of(task(3L, 7L, MONDAY)), cache.writeEpoch());
+        assertArrayEquals(new long[0], index.taskIdsForUser(42L));
+        assertEquals(1, index.dueDateCount());
+    }
+
+    private static TaskResponseDTO task(Long id, Long userId, LocalDateTime dueDate) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setUserId(userId);
+        task.setTaskDueDate(dueDate);
+        return task;
+    }
+}
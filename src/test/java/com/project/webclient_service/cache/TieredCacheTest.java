@@ -0,0 +1,129 @@
+package com.project.webclient_service.cache;
+
+import com.project.webclient_service.dto.TaskResponseDTO;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.web.reactive.function.client.WebClientResponseException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class TieredCacheTest {
+
+    private final SharedCacheStore store = new InProcessSharedCacheStore();
+    private final EntityCache<TaskResponseDTO> localA = localCache();
+    private final EntityCache<TaskResponseDTO> localB = localCache();
+    private final TieredCache<TaskResponseDTO> nodeA =
+            new TieredCache<>(localA, new TaskSnapshotCodec(), store, "test", "node-a", Duration.ofMinutes(5));
+    private final TieredCache<TaskResponseDTO> nodeB =
+            new TieredCache<>(localB, new TaskSnapshotCodec(), store, "test", "node-b", Duration.ofMinutes(5));
+    private final AtomicInteger backendCalls = new AtomicInteger();
+
+    @AfterEach
+    void dispose() {
+        nodeA.dispose();
+        nodeB.dispose();
+    }
+
+    @Test
+    void secondReplicaIsServedFromSharedTier() {
+        nodeA.load(1L, () -> backend(localA, "from backend")).block();
+
+        TaskResponseDTO task = nodeB.load(1L, () -> backend(localB, "from backend again")).block();
+
+        assertEquals("from backend", task.getTaskTitle());
+        assertEquals(1, backendCalls.get());
+        assertNotNull(localB.peek(1L));
+    }
+
+    @Test
+    void sharedEntryIsFallbackWhenBackendFails() {
+        nodeA.load(1L, () -> backend(localA, "from backend")).block();
+
+        TaskResponseDTO task = nodeB.load(2L, () -> Mono.error(new TimeoutException("down")))
+                .onErrorResume(error -> Mono.empty())
+                .block();
+        assertNull(task);
+
+        localA.evict(1L);
+        EntityCache<TaskResponseDTO> networkFirst = new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100,
+                Duration.ofMinutes(5), ReadMode.NETWORK_FIRST, Duration.ofMinutes(1));
+        TieredCache<TaskResponseDTO> nodeC = new TieredCache<>(networkFirst, new TaskSnapshotCodec(), store, "test", "node-c", Duration.ofMinutes(5));
+        assertEquals("from backend", nodeC.load(1L, () -> Mono.error(new TimeoutException("down"))).block().getTaskTitle());
+        nodeC.dispose();
+    }
+
+    @Test
+    void deletedEntityIsDroppedInsteadOfServedFromSharedTier() {
+        nodeA.load(1L, () -> backend(localA, "from backend")).block();
+        EntityCache<TaskResponseDTO> networkFirst = new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100,
+                Duration.ofMinutes(5), ReadMode.NETWORK_FIRST, Duration.ofMinutes(1));
+        TieredCache<TaskResponseDTO> nodeC = new TieredCache<>(networkFirst, new TaskSnapshotCodec(), store, "test", "node-c", Duration.ofMinutes(5));
+
+        Mono<TaskResponseDTO> deleted = nodeC.load(1L, () -> Mono.error(
+                WebClientResponseException.create(404, "Not Found", HttpHeaders.EMPTY, new byte[0], null)));
+        assertThrows(WebClientResponseException.NotFound.class, deleted::block);
+        assertNull(localA.peek(1L));
+
+        // Nothing is left in the shared tier to fall back to
+        Mono<TaskResponseDTO> unavailable = nodeC.load(1L, () -> Mono.error(new TimeoutException("down")));
+        assertThrows(RuntimeException.class, unavailable::block);
+        assertNull(networkFirst.peek(1L));
+        nodeC.dispose();
+    }
+
+    @Test
+    void sharedEntryIsNoFallbackForRejectedRequests() {
+        nodeA.load(1L, () -> backend(localA, "from backend")).block();
+        EntityCache<TaskResponseDTO> networkFirst = new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100,
+                Duration.ofMinutes(5), ReadMode.NETWORK_FIRST, Duration.ofMinutes(1));
+        TieredCache<TaskResponseDTO> nodeC = new TieredCache<>(networkFirst, new TaskSnapshotCodec(), store, "test", "node-c", Duration.ofMinutes(5));
+
+        Mono<TaskResponseDTO> rejected = nodeC.load(1L, () -> Mono.error(
+                WebClientResponseException.create(400, "Bad Request", HttpHeaders.EMPTY, new byte[0], null)));
+
+        assertThrows(WebClientResponseException.BadRequest.class, rejected::block);
+        assertNull(networkFirst.peek(1L));
+        nodeC.dispose();
+    }
+
+    @Test
+    void publishedWriteInvalidatesOtherReplicas() {
+        nodeA.load(1L, () -> backend(localA, "v1")).block();
+        nodeB.load(1L, () -> backend(localB, "v1")).block();
+
+        TaskResponseDTO updated = task(1L, "v2");
+        localA.put(updated);
+        nodeA.publishWrite(updated);
+
+        assertNull(localB.peek(1L));
+        assertEquals("v2", nodeB.load(1L, () -> backend(localB, "v3")).block().getTaskTitle());
+        assertNotNull(localA.peek(1L));
+    }
+
+    private Mono<TaskResponseDTO> backend(EntityCache<TaskResponseDTO> local, String title) {
+        return Mono.fromSupplier(() -> {
+            backendCalls.incrementAndGet();
+            TaskResponseDTO task = task(1L, title);
+            local.put(task);
+            return task;
+        });
+    }
+
+    private static EntityCache<TaskResponseDTO> localCache() {
+        return new EntityCache<>("taskCache", TaskResponseDTO::getTaskId, 100, Duration.ofMinutes(5),
+                ReadMode.CACHE_FIRST, Duration.ofMinutes(1));
+    }
+
+    private static TaskResponseDTO task(Long id, String title) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskTitle(title);
+        return task;
+    }
+}
@@ -0,0 +1,58 @@
+package com.project.webclient_service.service.impl;
+
+import com.project.webclient_service.dto.BatchItemResultDTO;
+import com.project.webclient_service.dto.BatchResponseDTO;
+import com.project.webclient_service.exception.InvalidRequestException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.function.Function;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class BatchExecutorTest {
+
+    private final BatchExecutor batchExecutor = new BatchExecutor();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(batchExecutor, "concurrency", 4);
+        ReflectionTestUtils.setField(batchExecutor, "maxSize", 3);
+    }
+
+    @Test
+    void rejectsBatchesOverTheMaximumSize() {
+        StepVerifier.create(batchExecutor.execute(List.of(1L, 2L, 3L, 4L), Function.identity(), Mono::just))
+                .expectError(InvalidRequestException.class)
+                .verify();
+    }
+
+    @Test
+    void failedItemsDoNotFailTheBatch() {
+        BatchResponseDTO<Long> response = batchExecutor.execute(List.of(1L, 2L, 3L), Function.identity(),
+                id -> id == 2L ? Mono.error(new IllegalStateException("Task 2 not found")) : Mono.just(id * 10)).block();
+
+        assertEquals(2, response.getSucceeded());
+        assertEquals(1, response.getFailed());
+        BatchItemResultDTO<Long> failed = response.getResults().get(1);
+        assertFalse(failed.isSuccess());
+        assertEquals(2L, failed.getId());
+        assertEquals("Task 2 not found", failed.getError());
+        assertEquals(30L, response.getResults().get(2).getData());
+    }
+
+    // Later items answer first, the results still follow the request order
+    @Test
+    void keepsTheOrderOfTheRequest() {
+        BatchResponseDTO<Long> response = batchExecutor.execute(List.of(1L, 2L, 3L), Function.identity(),
+                id -> Mono.just(id).delayElement(Duration.ofMillis(40 - id * 10))).block();
+
+        assertEquals(List.of(0, 1, 2), response.getResults().stream().map(BatchItemResultDTO::getIndex).toList());
+        assertEquals(List.of(1L, 2L, 3L), response.getResults().stream().map(BatchItemResultDTO::getData).toList());
+    }
+}
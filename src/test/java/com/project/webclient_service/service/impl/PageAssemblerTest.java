@@ -0,0 +1,108 @@
+package com.project.webclient_service.service.impl;
+
+import com.project.webclient_service.dto.PageRequestDTO;
+import com.project.webclient_service.dto.PageResponseDTO;
+import com.project.webclient_service.dto.TaskResponseDTO;
+import com.project.webclient_service.exception.InvalidRequestException;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.stream.LongStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class PageAssemblerTest {
+
+    private final PageAssembler<TaskResponseDTO> pages = new PageAssembler<>(TaskResponseDTO::getTaskId, "taskId", Map.of(
+            "taskId", new PageAssembler.SortKey<>(TaskResponseDTO::getTaskId, Long::valueOf),
+            "taskDueDate", new PageAssembler.SortKey<>(TaskResponseDTO::getTaskDueDate, LocalDateTime::parse)));
+
+    private final List<TaskResponseDTO> tasks = LongStream.rangeClosed(1, 7).mapToObj(PageAssemblerTest::task).toList();
+
+    @Test
+    void cursorWalksThroughAllEntitiesInOrder() {
+        PageRequestDTO request = new PageRequestDTO();
+        request.setSortBy("taskDueDate");
+        request.setDirection("desc");
+        request.setSize(3);
+
+        PageResponseDTO<TaskResponseDTO> first = pages.assemble(tasks.stream(), request);
+        request.setCursor(first.getNextCursor());
+        PageResponseDTO<TaskResponseDTO> second = pages.assemble(tasks.stream(), request);
+        request.setCursor(second.getNextCursor());
+        PageResponseDTO<TaskResponseDTO> third = pages.assemble(tasks.stream(), request);
+
+        assertEquals(List.of(7L, 6L, 5L), ids(first));
+        assertEquals(List.of(4L, 3L, 2L), ids(second));
+        assertEquals(List.of(1L), ids(third));
+        assertNull(third.getNextCursor());
+        assertEquals(7, third.getTotalElements());
+    }
+
+    @Test
+    void cursorPageSelectsTheNextEntitiesOfAnUnsortedListing() {
+        List<TaskResponseDTO> shuffled = new ArrayList<>(LongStream.rangeClosed(1, 1000).mapToObj(PageAssemblerTest::task).toList());
+        Collections.shuffle(shuffled, new Random(7));
+        PageRequestDTO request = new PageRequestDTO();
+        request.setSize(400);
+
+        request.setCursor(pages.assemble(shuffled.stream(), request).getNextCursor());
+        request.setCursor(pages.assemble(shuffled.stream(), request).getNextCursor());
+        PageResponseDTO<TaskResponseDTO> third = pages.assemble(shuffled.stream(), request);
+
+        assertEquals(LongStream.rangeClosed(801, 1000).boxed().toList(), ids(third));
+        assertEquals(1000, third.getTotalElements());
+        assertNull(third.getNextCursor());
+    }
+
+    @Test
+    void pageNumberSkipsPreviousPages() {
+        PageRequestDTO request = new PageRequestDTO();
+        request.setPage(1);
+        request.setSize(5);
+
+        assertEquals(List.of(6L, 7L), ids(pages.assemble(tasks.stream(), request)));
+    }
+
+    @Test
+    void pageBeyondTheLastIsEmpty() {
+        PageRequestDTO request = new PageRequestDTO();
+        request.setPage(Integer.MAX_VALUE);
+        request.setSize(100);
+
+        PageResponseDTO<TaskResponseDTO> page = pages.assemble(tasks.stream(), request);
+
+        assertEquals(List.of(), ids(page));
+        assertNull(page.getNextCursor());
+    }
+
+    @Test
+    void rejectsUnknownSortFieldAndForeignCursor() {
+        PageRequestDTO request = new PageRequestDTO();
+        request.setSortBy("taskTitle");
+        assertThrows(InvalidRequestException.class, () -> pages.assemble(tasks.stream(), request));
+
+        request.setSortBy("taskId");
+        request.setSize(2);
+        String cursor = pages.assemble(tasks.stream(), request).getNextCursor();
+        request.setSortBy("taskDueDate");
+        request.setCursor(cursor);
+        assertThrows(InvalidRequestException.class, () -> pages.assemble(tasks.stream(), request));
+    }
+
+    private static List<Long> ids(PageResponseDTO<TaskResponseDTO> page) {
+        return page.getItems().stream().map(TaskResponseDTO::getTaskId).toList();
+    }
+
+    private static TaskResponseDTO task(long id) {
+        TaskResponseDTO task = new TaskResponseDTO();
+        task.setTaskId(id);
+        task.setTaskDueDate(LocalDateTime.of(2024, 9, 1, 12, 0).plusDays(id));
+        return task;
+    }
+}
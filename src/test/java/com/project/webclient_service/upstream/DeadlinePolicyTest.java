@@ -0,0 +1,50 @@
+package com.project.webclient_service.upstream;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.time.Duration;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlinePolicyTest {
+
+    private final DeadlinePolicy policy = new DeadlinePolicy();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(policy, "header", "X-Request-Timeout-Ms");
+        ReflectionTestUtils.setField(policy, "defaultBudget", Duration.ofSeconds(5));
+        ReflectionTestUtils.setField(policy, "maxBudget", Duration.ofSeconds(30));
+        ReflectionTestUtils.setField(policy, "endpoints", new String[]{"/web-client/stream-tasks=60s", " /web-client/batch-get-tasks = 20s"});
+        policy.parseEndpoints();
+    }
+
+    @Test
+    void usesTheEndpointDefaultBeyondTheMaximum() {
+        assertBudget(Duration.ofSeconds(5), policy.deadlineFor("/web-client/get-tasks", null));
+        assertBudget(Duration.ofSeconds(20), policy.deadlineFor("/web-client/batch-get-tasks", null));
+        assertBudget(Duration.ofSeconds(60), policy.deadlineFor("/web-client/stream-tasks", null));
+    }
+
+    @Test
+    void headerReplacesTheDefault() {
+        assertBudget(Duration.ofMillis(800), policy.deadlineFor("/web-client/batch-get-tasks", "800"));
+        assertBudget(Duration.ofSeconds(30), policy.deadlineFor("/web-client/get-tasks", "120000"));
+        assertBudget(Duration.ofSeconds(60), policy.deadlineFor("/web-client/stream-tasks", "120000"));
+        assertBudget(Duration.ofSeconds(5), policy.deadlineFor("/web-client/get-tasks", "soon"));
+    }
+
+    @Test
+    void nonPositiveHeaderFallsBackToTheDefault() {
+        assertBudget(Duration.ofSeconds(5), policy.deadlineFor("/web-client/get-tasks", "-5"));
+        assertBudget(Duration.ofSeconds(20), policy.deadlineFor("/web-client/batch-get-tasks", "0"));
+    }
+
+    private static void assertBudget(Duration expected, Deadline deadline) {
+        Duration remaining = deadline.remaining();
+        assertTrue(remaining.compareTo(expected) <= 0, () -> remaining + " exceeds " + expected);
+        assertTrue(remaining.compareTo(expected.minusSeconds(1)) > 0, () -> remaining + " is far below " + expected);
+    }
+}
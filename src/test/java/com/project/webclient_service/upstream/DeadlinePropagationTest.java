@@ -0,0 +1,77 @@
+package com.project.webclient_service.upstream;
+
+import com.project.webclient_service.exception.DeadlineExceededException;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.core.io.buffer.DefaultDataBufferFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.test.util.ReflectionTestUtils;
+import org.springframework.web.reactive.function.client.ClientRequest;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.net.URI;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class DeadlinePropagationTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlinePropagation propagation = new DeadlinePropagation(deadlinePolicy(), meterRegistry);
+    private final ClientRequest request = ClientRequest.create(HttpMethod.GET, URI.create("http://task-manager/task-api/list-tasks")).build();
+
+    @Test
+    void deadlineEndsAStalledBody() {
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Flux<DataBuffer> body = Flux.concat(Flux.just(buffer("[")), Flux.<DataBuffer>never())
+                .doOnCancel(() -> cancelled.set(true));
+
+        Mono<String> call = propagation.filter(request, clientRequest -> Mono.just(response(body)))
+                .flatMap(response -> response.bodyToMono(String.class))
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofMillis(100))));
+
+        StepVerifier.create(call).expectError(DeadlineExceededException.class).verify(Duration.ofSeconds(1));
+        assertTrue(cancelled.get());
+        assertEquals(1, meterRegistry.get("webclient.upstream.deadline.exceeded").counter().count());
+    }
+
+    @Test
+    void bodyWithinTheDeadlineIsRead() {
+        Flux<DataBuffer> body = Flux.just(buffer("[1,"), buffer("2]")).delayElements(Duration.ofMillis(20));
+
+        Mono<String> call = propagation.filter(request, clientRequest -> {
+                    assertNotNull(clientRequest.headers().getFirst("X-Request-Timeout-Ms"));
+                    return Mono.just(response(body));
+                })
+                .flatMap(response -> response.bodyToMono(String.class))
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofSeconds(1))));
+
+        StepVerifier.create(call).expectNext("[1,2]").verifyComplete();
+    }
+
+    private static DeadlinePolicy deadlinePolicy() {
+        DeadlinePolicy policy = new DeadlinePolicy();
+        ReflectionTestUtils.setField(policy, "header", "X-Request-Timeout-Ms");
+        return policy;
+    }
+
+    private static ClientResponse response(Flux<DataBuffer> body) {
+        return ClientResponse.create(HttpStatus.OK)
+                .header(HttpHeaders.CONTENT_TYPE, MediaType.TEXT_PLAIN_VALUE)
+                .body(body)
+                .build();
+    }
+
+    private static DataBuffer buffer(String content) {
+        return DefaultDataBufferFactory.sharedInstance.wrap(content.getBytes(StandardCharsets.UTF_8));
+    }
+}
@@ -0,0 +1,103 @@
+package com.project.webclient_service.upstream;
+
+import com.project.webclient_service.exception.DeadlineExceededException;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class IdempotentRequestsTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    private IdempotentRequests requests(double budgetRatio) {
+        IdempotentRequests requests = new IdempotentRequests(CircuitBreakerRegistry.ofDefaults(), RetryRegistry.ofDefaults(), meterRegistry);
+        ReflectionTestUtils.setField(requests, "totalBudget", Duration.ofMillis(500));
+        ReflectionTestUtils.setField(requests, "fallbackReserve", Duration.ofMillis(50));
+        ReflectionTestUtils.setField(requests, "hedgingEnabled", true);
+        ReflectionTestUtils.setField(requests, "hedgeBudgetRatio", budgetRatio);
+        ReflectionTestUtils.setField(requests, "minHedgeDelay", Duration.ofMillis(20));
+        ReflectionTestUtils.setField(requests, "minSamples", 0L);
+        return requests;
+    }
+
+    @Test
+    void hedgeAnswersWhenTheFirstAttemptStalls() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = requests(1.0).execute("GET /task-api/get-task/{id}",
+                () -> attempts.incrementAndGet() == 1 ? Mono.never() : Mono.just("task"));
+
+        StepVerifier.create(call).expectNext("task").verifyComplete();
+        assertEquals(2, attempts.get());
+        assertEquals(1, meterRegistry.get("webclient.upstream.hedges").counter().count());
+        // The overtaken first attempt counts with the time it ran, not only the hedge that answered
+        assertEquals(2, meterRegistry.get("webclient.upstream.latency").timer().count());
+    }
+
+    @Test
+    void hedgeAnswersWhenTheFirstAttemptFailsWhileItIsInFlight() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = requests(1.0).execute("GET /task-api/get-task/{id}",
+                () -> attempts.incrementAndGet() == 1
+                        ? Mono.delay(Duration.ofMillis(40)).then(Mono.error(new IllegalStateException("primary failed")))
+                        : Mono.delay(Duration.ofMillis(60)).thenReturn("task"));
+
+        StepVerifier.create(call).expectNext("task").verifyComplete();
+        assertEquals(2, attempts.get());
+    }
+
+    @Test
+    void noHedgeWithoutBudgetAndTheTotalBudgetEndsTheCall() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = requests(0.0).execute("GET /task-api/get-task/{id}",
+                () -> attempts.incrementAndGet() == 1 ? Mono.never() : Mono.just("task"));
+
+        StepVerifier.create(call).expectError(TimeoutException.class).verify();
+        assertEquals(1, attempts.get());
+    }
+
+    @Test
+    void routeBudgetReplacesTheTotalBudget() {
+        IdempotentRequests requests = requests(0.0);
+        ReflectionTestUtils.setField(requests, "routeBudgetEntries", new String[]{"GET /task-api/list-tasks=2s"});
+        ReflectionTestUtils.invokeMethod(requests, "parseRouteBudgets");
+
+        Mono<String> listing = requests.execute("GET /task-api/list-tasks",
+                () -> Mono.delay(Duration.ofMillis(700)).thenReturn("tasks"));
+        Mono<String> task = requests.execute("GET /task-api/list-task",
+                () -> Mono.delay(Duration.ofMillis(700)).thenReturn("task"));
+
+        StepVerifier.create(listing).expectNext("tasks").verifyComplete();
+        StepVerifier.create(task).expectError(TimeoutException.class).verify();
+    }
+
+    @Test
+    void deadlineEndsTheCallBeforeTheTotalBudget() {
+        Mono<String> call = requests(0.0).execute("GET /task-api/get-task/{id}", Mono::<String>never)
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofMillis(150))));
+
+        StepVerifier.create(call).expectError(DeadlineExceededException.class).verify(Duration.ofMillis(400));
+    }
+
+    @Test
+    void noAttemptAfterTheDeadline() {
+        AtomicInteger attempts = new AtomicInteger();
+        Mono<String> call = requests(0.0).execute("GET /task-api/get-task/{id}", () -> {
+                    attempts.incrementAndGet();
+                    return Mono.just("task");
+                })
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofMillis(10))));
+
+        StepVerifier.create(call).expectError(DeadlineExceededException.class).verify();
+        assertEquals(0, attempts.get());
+    }
+}
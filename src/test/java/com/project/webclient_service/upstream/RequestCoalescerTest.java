@@ -0,0 +1,95 @@
+package com.project.webclient_service.upstream;
+
+import com.project.webclient_service.exception.DeadlineExceededException;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.Sinks;
+import reactor.test.StepVerifier;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RequestCoalescerTest {
+
+    private final RequestCoalescer coalescer = new RequestCoalescer();
+
+    @BeforeEach
+    void setUp() {
+        ReflectionTestUtils.setField(coalescer, "fallbackReserve", Duration.ofMillis(10));
+    }
+
+    @Test
+    void concurrentCallersShareOneUpstreamCall() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Sinks.One<String> response = Sinks.one();
+        Mono<String> upstream = response.asMono().doOnSubscribe(s -> subscriptions.incrementAndGet());
+
+        Mono<String> first = coalescer.coalesce("getTaskById:1", () -> upstream).cache();
+        Mono<String> second = coalescer.coalesce("getTaskById:1", () -> upstream).cache();
+        first.subscribe();
+        second.subscribe();
+        response.tryEmitValue("task");
+
+        assertEquals("task", first.block());
+        assertEquals("task", second.block());
+        assertEquals(1, subscriptions.get());
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void differentKeysAreNotShared() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        Mono<String> upstream = Mono.fromSupplier(() -> "task" + subscriptions.incrementAndGet());
+
+        coalescer.coalesce("getTaskById:1", () -> upstream).block();
+        coalescer.coalesce("getTaskById:2", () -> upstream).block();
+
+        assertEquals(2, subscriptions.get());
+    }
+
+    @Test
+    void errorsAreDeliveredToEveryCallerAndReleaseTheKey() {
+        Sinks.One<String> response = Sinks.one();
+
+        Mono<String> first = coalescer.coalesce("getAllTasks", response::asMono).cache();
+        Mono<String> second = coalescer.coalesce("getAllTasks", response::asMono).cache();
+        first.subscribe(v -> {}, e -> {});
+        second.subscribe(v -> {}, e -> {});
+        response.tryEmitError(new IllegalStateException("boom"));
+
+        assertThrows(IllegalStateException.class, first::block);
+        assertThrows(IllegalStateException.class, second::block);
+        assertEquals(0, coalescer.inFlightCount());
+    }
+
+    @Test
+    void everyCallerWaitsForItsOwnDeadline() {
+        AtomicInteger subscriptions = new AtomicInteger();
+        AtomicReference<Deadline> upstreamDeadline = new AtomicReference<>(Deadline.after(Duration.ZERO));
+        Mono<String> upstream = Mono.deferContextual(context -> {
+            subscriptions.incrementAndGet();
+            upstreamDeadline.set(Deadline.from(context));
+            return Mono.delay(Duration.ofMillis(300)).thenReturn("tasks");
+        });
+
+        Mono<String> shortBudget = coalescer.coalesce("getAllTasks", () -> upstream)
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofMillis(100))));
+        Mono<String> longBudget = coalescer.coalesce("getAllTasks", () -> upstream)
+                .contextWrite(context -> context.put(Deadline.CONTEXT_KEY, Deadline.after(Duration.ofSeconds(2))));
+
+        StepVerifier.create(Mono.zip(shortBudget.onErrorResume(DeadlineExceededException.class, e -> Mono.just("deadline")),
+                        longBudget))
+                .assertNext(results -> {
+                    assertEquals("deadline", results.getT1());
+                    assertEquals("tasks", results.getT2());
+                })
+                .verifyComplete();
+        assertEquals(1, subscriptions.get());
+        assertNull(upstreamDeadline.get());
+    }
+}